@@ -9,7 +9,15 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -24,11 +32,34 @@ public class App {
     private static final Pattern PATTERN_PLAY_PLIC_PLOC = Pattern.compile("^m(( [0-9]{1,2}){2} [0-6])+$", Pattern.CASE_INSENSITIVE);
     private static final Pattern PATTERN_PLAY_FIRST = Pattern.compile("^f(( [lrud])? [0-6]| [lrud]( [0-6]){2,})$", Pattern.CASE_INSENSITIVE);
     private static final Pattern PATTERN_PASS = Pattern.compile("^p$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PATTERN_HINT = Pattern.compile("^h$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PATTERN_UNDO = Pattern.compile("^u$", Pattern.CASE_INSENSITIVE);
     private static final Pattern PATTERN_QUIT = Pattern.compile("^q$", Pattern.CASE_INSENSITIVE);
     private static final Pattern PATTERN_SAVE_GAME = Pattern.compile("^s [a-zA-Z0-9^<>:;,?\"*_]+$", Pattern.CASE_INSENSITIVE);
     private static final String RED_BOLD = "\033[1;31m";
     private static final String BOLD = "\033[1m";
     private static final String RESET = "\033[0m";
+    private static final String BOT_PREFIX = "@";
+    private static final long BOT_BUDGET_NANOS = 5_000_000;
+    private static final Strategy BOT = new GreedyStrategy(BOT_BUDGET_NANOS);
+    private static final long DEFAULT_HINT_MILLIS = 200;
+    private static final int HINT_TABLE_MEGABYTES = 1;
+    private static final String USAGE = "Usage: App [hint milliseconds > 0] [turns between journal syncs >= 0]";
+    private static final ExecutorService HINT_EXECUTOR = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "hint");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final String BACKUPS_DIRECTORY = "backups";
+    private static final String JOURNALS_DIRECTORY = "journals";
+    private static final String JOURNAL_PREFIX = "game-";
+    private static final String AUTOSAVE_FILE = "autosave";
+    private static final String ARCHIVE_DIRECTORY = "archive";
+    private static final int DEFAULT_JOURNAL_SYNC_EVERY = 1;
+    private static long hintMillis = DEFAULT_HINT_MILLIS;
+    private static int journalSyncEvery = DEFAULT_JOURNAL_SYNC_EVERY;
+    private static Strategy hintGreedy;
+    private static Strategy hintSolver;
 
     private App() {
     }
@@ -44,7 +75,8 @@ public class App {
         boolean firstTry = true;
         do {
             if (firstTry) {
-                System.out.print("Enter the names of the players followed by a space : ");
+                System.out.print("Enter the names of the players followed by a space, " + BOT_PREFIX
+                        + " before the name of a computer player : ");
                 firstTry = false;
             } else {
                 System.out.print("Minimum two players please, try again : ");
@@ -67,9 +99,41 @@ public class App {
         System.out.println("Creating a new game ...");
         Game generatedGame = new Game(namesPlayers);
         System.out.println("Game created !");
+        startJournal(generatedGame);
+        startAutosave(generatedGame);
         return generatedGame;
     }
 
+    /**
+     * Start saving a game in the background after every turn, in the autosave file of the backups folder.
+     * The game goes on without being saved if the folder cannot be created.
+     *
+     * @param savedGame The game to save.
+     */
+    private static void startAutosave(Game savedGame) {
+        try {
+            savedGame.startAutosave(AUTOSAVE_FILE);
+        } catch (QwirkleException e) {
+            System.out.println(RED_BOLD + e.getMessage() + RESET);
+        }
+    }
+
+    /**
+     * Start recording the turns of a game in a new journal, so that the game can be restored after a crash.
+     * The game goes on without a journal if it cannot be created.
+     *
+     * @param journaledGame The game whose turns are recorded.
+     */
+    private static void startJournal(Game journaledGame) {
+        String fileName = JOURNAL_PREFIX + System.currentTimeMillis();
+        try {
+            journaledGame.startJournal(fileName, journalSyncEvery);
+            System.out.println("Turns recorded in the journal " + fileName + ".");
+        } catch (QwirkleException e) {
+            System.out.println(RED_BOLD + e.getMessage() + RESET);
+        }
+    }
+
     /**
      * Decode and execute a user command.
      *
@@ -86,6 +150,8 @@ public class App {
             handlePlayFirst(command);
         } else if (getMatcherPass(command).find()) {
             handlePass();
+        } else if (getMatcherHint(command).find()) {
+            handleHint();
         } else if (getMatcherQuit(command).find()) {
             handleQuit();
         } else if (getMatcherSaveGame(command).find()) {
@@ -158,10 +224,148 @@ public class App {
         game.pass();
     }
 
+    /**
+     * Handle the "hint" command by searching the best move of the current player on a background thread, on a copy of
+     * the game. The greedy move is found first, then improved by the endgame solver once the bag is empty, both
+     * searches sharing a single deadline, so that the solver only gets the time the greedy search left and the
+     * background thread is free again by the deadline. When the deadline is reached, the best move found so far is
+     * shown. A pass is only advised when the player has no legal move, not when the search found none in time.
+     */
+    private static void handleHint() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hintMillis);
+        Game copy = game.copy();
+        AtomicReference<Optional<Move>> best = new AtomicReference<>();
+        Future<?> search = HINT_EXECUTOR.submit(() -> {
+            Move greedy = hintGreedy.choose(copy, deadline);
+            if (greedy == null && !copy.getLegalMoves().isEmpty()) return;
+            best.set(Optional.ofNullable(greedy));
+            if (copy.getBagSize() == 0 && System.nanoTime() - deadline < 0) {
+                best.set(Optional.ofNullable(hintSolver.choose(copy, deadline)));
+            }
+        });
+        try {
+            search.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // The searches stop by themselves at the deadline, the best move found so far is shown.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            View.displayError("The hint could not be found.");
+            return;
+        }
+        Optional<Move> hint = best.get();
+        if (hint == null) {
+            View.displayError("No hint was found in time.");
+        } else {
+            View.displayHint(hint.map(App::toCommand).orElse("p"), hint.map(Move::getScore).orElse(0));
+        }
+    }
+
+    /**
+     * Write a move in the syntax of the commands, so that the player can type it.
+     *
+     * @param move The move to write.
+     * @return The command playing the move.
+     */
+    private static String toCommand(Move move) {
+        StringBuilder command = new StringBuilder();
+        switch (move.getKind()) {
+            case FIRST -> {
+                command.append('f');
+                if (move.size() > 1) command.append(' ').append(toCommand(move.getDirection()));
+            }
+            case SINGLE -> command.append("o ").append(move.getRow(0)).append(' ').append(move.getCol(0));
+            case LINE -> command.append("l ").append(move.getRow(0)).append(' ').append(move.getCol(0))
+                    .append(' ').append(toCommand(move.getDirection()));
+            case PLIC_PLOC -> command.append('m');
+        }
+        for (int i = 0; i < move.size(); i++) {
+            if (move.getKind() == MoveKind.PLIC_PLOC) {
+                command.append(' ').append(move.getRow(i)).append(' ').append(move.getCol(i));
+            }
+            command.append(' ').append(move.getHandIndex(i));
+        }
+        return command.toString();
+    }
+
+    /**
+     * Write a direction in the syntax of the commands.
+     *
+     * @param d The direction.
+     * @return The letter of the direction.
+     */
+    private static char toCommand(Direction d) {
+        return switch (d) {
+            case LEFT -> 'l';
+            case RIGHT -> 'r';
+            case UP -> 'u';
+            case DOWN -> 'd';
+        };
+    }
+
+    /**
+     * Offer the player who just played a turn at the console to undo it, before the next player plays, so that a
+     * player can take back their own turn but never the turn of another player.
+     *
+     * @param scanner The scanner to read user input from.
+     */
+    private static void offerUndo(Scanner scanner) {
+        View.display(game.getGrid());
+        System.out.print("Enter u to undo your turn, or anything else to end it: ");
+        if (getMatcherUndo(scanner.nextLine()).find()) {
+            game.undo();
+        }
+    }
+
+    /**
+     * Play the turn of a computer player, its name starting with the bot prefix.
+     */
+    private static void playBot() {
+        Move move = BOT.choose(game);
+        if (move == null) {
+            System.out.println(game.getCurrentPlayerName() + " passes.");
+            game.pass();
+        } else {
+            System.out.println(game.getCurrentPlayerName() + " plays for " + move.getScore() + " points.");
+            game.apply(move);
+        }
+    }
+
+    /**
+     * Check whether the current player is played by the computer.
+     *
+     * @return `true` if the name of the current player starts with the bot prefix, `false` otherwise.
+     */
+    private static boolean isBotTurn() {
+        return game.getCurrentPlayerName().startsWith(BOT_PREFIX);
+    }
+
+    /**
+     * Add the finished game to the archive of the archive folder, as the list of its moves.
+     */
+    private static void archiveGame() {
+        try (GameArchive archive = new GameArchive(Paths.get(ARCHIVE_DIRECTORY))) {
+            long id = archive.append(game);
+            System.out.println("Game archived as game " + id + ".");
+        } catch (QwirkleException e) {
+            System.out.println(RED_BOLD + e.getMessage() + RESET);
+        }
+    }
+
     /**
      * Handle the "quit" command by terminating the game.
      */
     private static void handleQuit() {
+        try {
+            game.stopJournal();
+        } catch (QwirkleException e) {
+            System.out.println(RED_BOLD + e.getMessage() + RESET);
+        }
+        try {
+            game.stopAutosave();
+        } catch (QwirkleException e) {
+            System.out.println(RED_BOLD + e.getMessage() + RESET);
+        }
         System.out.println("Game terminated.");
         System.exit(0);
     }
@@ -194,6 +398,25 @@ public class App {
             System.out.println(RED_BOLD + e.getMessage() + RESET);
             System.exit(-1);
         }
+        startJournal(game);
+        startAutosave(game);
+    }
+
+    /**
+     * Handle the restoration of a game from a journal, by playing its turns again. The turns that follow are
+     * recorded in the same journal.
+     *
+     * @param fileName The name of the journal to restore the game from.
+     */
+    private static void handleRestoreJournal(String fileName) {
+        try {
+            game = Game.getFromJournal(fileName, journalSyncEvery);
+            System.out.println("Charged game from its journal.");
+        } catch (QwirkleException e) {
+            System.out.println(RED_BOLD + e.getMessage() + RESET);
+            System.exit(-1);
+        }
+        startAutosave(game);
     }
 
     /**
@@ -263,6 +486,26 @@ public class App {
         return PATTERN_PASS.matcher(command);
     }
 
+    /**
+     * Get a matcher for the "hint" command pattern.
+     *
+     * @param command The user command to match.
+     * @return A matcher for the "hint" pattern.
+     */
+    private static Matcher getMatcherHint(String command) {
+        return PATTERN_HINT.matcher(command);
+    }
+
+    /**
+     * Get a matcher for the "undo" command pattern.
+     *
+     * @param command The user command to match.
+     * @return A matcher for the "undo" pattern.
+     */
+    private static Matcher getMatcherUndo(String command) {
+        return PATTERN_UNDO.matcher(command);
+    }
+
     /**
      * Get a matcher for the "quit" command pattern.
      *
@@ -344,22 +587,25 @@ public class App {
         scanner.nextLine();
 
         if (r == 'Y') {
-            String directoryName = "backups" + File.separator;
-            File directory = new File(directoryName);
-            File[] listOfFiles = directory.listFiles();
+            File[] listOfFiles = new File(BACKUPS_DIRECTORY).listFiles();
+            File[] listOfJournals = new File(JOURNALS_DIRECTORY).listFiles();
             Path file;
+            Path journal;
             String fileName;
             boolean firstTry = true;
 
-            if (listOfFiles == null) {
+            if (listOfFiles == null && listOfJournals == null) {
                 System.out.println("No game parts to restore.");
                 return false;
             }
 
             do {
-                for (File listOfFile : listOfFiles) {
+                for (File listOfFile : listOfFiles == null ? new File[0] : listOfFiles) {
                     System.out.println(BOLD + "File: " + listOfFile.getName() + RESET);
                 }
+                for (File listOfJournal : listOfJournals == null ? new File[0] : listOfJournals) {
+                    System.out.println(BOLD + "Journal: " + listOfJournal.getName() + RESET);
+                }
                 if (firstTry) {
                     System.out.print("Enter the name of a file listed in the selection: ");
                     firstTry = false;
@@ -367,9 +613,14 @@ public class App {
                     System.out.print("The file does not exist, please select a file listed in the selection: ");
                 }
                 fileName = scanner.nextLine();
-                file = Paths.get(directoryName + fileName);
-            } while (!Files.exists(file));
-            handleRestoreGame(fileName);
+                file = Paths.get(BACKUPS_DIRECTORY, fileName);
+                journal = Paths.get(JOURNALS_DIRECTORY, fileName);
+            } while (fileName.isEmpty() || !Files.exists(file) && !Files.exists(journal));
+            if (Files.exists(file)) {
+                handleRestoreGame(fileName);
+            } else {
+                handleRestoreJournal(fileName);
+            }
             return true;
         }
 
@@ -379,9 +630,28 @@ public class App {
     /**
      * Main method to start the Qwirkle game application.
      *
-     * @param args Command-line arguments (not used).
+     * @param args Command-line arguments, optional: the deadline of the hint command in milliseconds, then the number
+     *             of turns after which the journal is forced to the disk, 0 to leave it to the system.
      */
     public static void main(String[] args) {
+        try {
+            if (args.length > 0) {
+                hintMillis = Long.parseLong(args[0]);
+            }
+            if (args.length > 1) {
+                journalSyncEvery = Integer.parseInt(args[1]);
+            }
+        } catch (NumberFormatException e) {
+            View.displayError(USAGE);
+            return;
+        }
+        if (args.length > 2 || hintMillis <= 0 || journalSyncEvery < 0) {
+            View.displayError(USAGE);
+            return;
+        }
+        long hintNanos = TimeUnit.MILLISECONDS.toNanos(hintMillis);
+        hintGreedy = new GreedyStrategy(hintNanos);
+        hintSolver = new EndgameSolver(hintNanos, HINT_TABLE_MEGABYTES, hintGreedy);
         Scanner scanner = new Scanner(System.in);
 
         if (!askRestoreGame(scanner)) {
@@ -396,10 +666,19 @@ public class App {
             int scoreCurrPlayer = game.getCurrentPlayerScore();
             View.display(nameCurrPlayer, handCurrPlayer, scoreCurrPlayer);
             View.display(game.getGrid());
-            System.out.print("Enter a command: ");
-            String command = scanner.nextLine();
-            decodeCommand(command);
+            if (isBotTurn()) {
+                playBot();
+            } else {
+                System.out.print("Enter a command: ");
+                String command = scanner.nextLine();
+                int turnCount = game.getTurnCount();
+                decodeCommand(command);
+                if (game.getTurnCount() == turnCount + 1) {
+                    offerUndo(scanner);
+                }
+            }
             if (game.isOver()) {
+                archiveGame();
                 Player winner = game.getWinner();
                 View.displayWinner(winner);
                 handleQuit();
@@ -0,0 +1,45 @@
+package g61453.qwirkle.App;
+
+import g61453.qwirkle.Model.*;
+import g61453.qwirkle.View.View;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Entry point playing games between computer players without any interaction, to compare rules and strategies.
+ * Usage: Simulate [games] [players] [threads] [seed]
+ * By default, 10000 games of two players are played on every core, from the seed 0.
+ */
+public class Simulate {
+    private static final long DEFAULT_GAMES = 10000;
+    private static final int DEFAULT_PLAYERS = 2;
+    private static final long DEFAULT_SEED = 0;
+
+    private Simulate() {
+    }
+
+    /**
+     * Runs the simulation described by the arguments and displays its report.
+     *
+     * @param args The number of games, of players and of threads, and the seed, each one optional.
+     */
+    public static void main(String[] args) {
+        try {
+            long games = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_GAMES;
+            int players = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PLAYERS;
+            int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+            List<LongFunction<Strategy>> seats = new ArrayList<>(players);
+            for (int i = 0; i < players; i++) {
+                seats.add(RandomStrategy::new);
+            }
+            View.displaySimulationReport(new Simulation(seats, games, threads, seed).run());
+        } catch (NumberFormatException e) {
+            View.displayError("Usage: Simulate [games] [players] [threads] [seed]");
+        } catch (QwirkleException e) {
+            View.displayError(e.getMessage());
+        }
+    }
+}
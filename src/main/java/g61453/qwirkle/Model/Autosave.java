@@ -0,0 +1,131 @@
+package g61453.qwirkle.Model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Saves a game in the background, so that a slow disk never delays a turn. At the end of each turn, the game is
+ * encoded in the format of SaveFormat, which takes a few microseconds and a few hundred bytes, and the save is handed
+ * to a writer thread of its own. A save handed while the writer is still busy replaces the one waiting, if any, so
+ * that the writer only writes the last state of the game however fast the turns follow each other.
+ * The writer writes the save to a temporary file of the same folder, forces it to the disk, then renames it over the
+ * save of the previous turn, so that the file always holds a whole save, even after a crash in the middle of a write.
+ */
+final class Autosave implements Closeable {
+    private final Path file;
+    private final Path temporary;
+    private final AtomicReference<ByteBuffer> pending;
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile IOException failure;
+    private volatile long written;
+
+    /**
+     * Constructs an autosave and starts its writer thread.
+     *
+     * @param file The path of the save, whose folder must exist.
+     */
+    Autosave(Path file) {
+        this.file = file;
+        this.temporary = file.resolveSibling("." + file.getFileName() + ".tmp");
+        this.pending = new AtomicReference<>();
+        this.writer = new Thread(this::run, "autosave");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Hands the save of a game to the writer, replacing the one waiting, if any.
+     *
+     * @param game The game, at the end of a turn.
+     */
+    void submit(Game game) {
+        pending.set(SaveFormat.encode(game));
+        LockSupport.unpark(writer);
+    }
+
+    /**
+     * Gets the failure of the last save written, if it failed.
+     *
+     * @return The failure, or null if the last save was written.
+     */
+    IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Gets the number of saves written, smaller than the number handed when some were replaced before being written.
+     *
+     * @return The number of saves written.
+     */
+    long getWritten() {
+        return written;
+    }
+
+    /**
+     * Writes the save waiting, if any, then stops the writer.
+     *
+     * @throws IOException If the last save could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * Writes the saves handed until the autosave is closed and no save is waiting.
+     * The closing flag is read before the waiting save is taken, so that a save handed before close, and seen by the
+     * writer only after the flag, is still written before the writer stops.
+     */
+    private void run() {
+        while (true) {
+            boolean stop = closed;
+            ByteBuffer save = pending.getAndSet(null);
+            if (save != null) {
+                try {
+                    write(save);
+                    failure = null;
+                    written++;
+                } catch (IOException e) {
+                    failure = e;
+                }
+            } else if (stop) {
+                return;
+            } else {
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    /**
+     * Writes a save to the temporary file, forces it to the disk, then renames it over the save.
+     *
+     * @param save The buffer holding the save.
+     * @throws IOException If the save cannot be written.
+     */
+    private void write(ByteBuffer save) throws IOException {
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (save.hasRemaining()) {
+                channel.write(save);
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -1,50 +1,89 @@
 package g61453.qwirkle.Model;
 
 import java.io.Serializable;
-import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * The Bag class represents a bag of tiles containing different combinations of colors and shapes.
  * The bag contains 108 tiles, and it allows getting random sets of tiles from the bag.
+ * The Zobrist hash of the tiles left in the bag is updated with each tile drawn or put back.
+ * Each game owns its bag and hands it to its players, so that games running side by side never share tiles.
+ * The tiles are kept as codes in an array whose first cells hold the tiles left. A tile is drawn by swapping it with
+ * the last tile left, in constant time, and the number of copies of each tile left is counted.
+ * The random numbers come from a SplitMix64 generator owned by the bag, so that a bag built from a seed always deals
+ * the same tiles, and a copy of the bag costs two small arrays.
  */
 public class Bag implements Serializable {
-    private static Bag instance;
-    private final List<Tile> tiles;
-
-    /**
-     * Private constructor to initialize the bag with 108 tiles, combining colors and shapes.
-     */
-    private Bag() {
-        Color[] colors = Color.values();
-        Shape[] shapes = Shape.values();
-        this.tiles = new ArrayList<>(108);
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 6; j++) {
-                for (int k = 0; k < 6; k++) {
-                    Tile tile = new Tile(colors[k], shapes[j]);
-                    tiles.add(tile);
-                }
+    static final int COPIES_PER_TILE = 3;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private final byte[] codes;
+    private final byte[] copies;
+    private int size;
+    private long hash;
+    private long seed;
+
+    /**
+     * Constructs a full bag of 108 tiles, three of each combination of color and shape, dealing its tiles in an
+     * unpredictable order.
+     */
+    Bag() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Constructs a full bag of 108 tiles, three of each combination of color and shape. Two bags built from the same
+     * seed deal the same tiles.
+     *
+     * @param seed The seed of the random numbers.
+     */
+    Bag(long seed) {
+        this.codes = new byte[Tile.TYPES * COPIES_PER_TILE];
+        this.copies = new byte[Tile.TYPES + 1];
+        this.seed = seed;
+        for (int i = 0; i < COPIES_PER_TILE; i++) {
+            for (int code = 1; code <= Tile.TYPES; code++) {
+                codes[size++] = (byte) code;
+                hash ^= Zobrist.bagTile(code, copies[code]++);
             }
         }
     }
 
     /**
-     * Create an instance of the Bag class if it doesn't exist and return it otherwise return the existing instance.
+     * Constructs a bag holding given tiles, in the order in which they are kept.
      *
-     * @return The instance of the Bag class.
+     * @param tiles The codes of the tiles left.
+     * @param size  The number of tiles left.
+     * @param seed  The state of the random numbers.
      */
-    public static Bag getInstance() {
-        if (instance == null) {
-            instance = new Bag();
+    Bag(byte[] tiles, int size, long seed) {
+        this.codes = new byte[Tile.TYPES * COPIES_PER_TILE];
+        this.copies = new byte[Tile.TYPES + 1];
+        this.seed = seed;
+        for (int i = 0; i < size; i++) {
+            add(tiles[i]);
         }
-        return instance;
+    }
+
+    /**
+     * Constructs a copy of a bag.
+     *
+     * @param other The bag to copy.
+     * @param seed  The seed of the random numbers of the copy.
+     */
+    private Bag(Bag other, long seed) {
+        this.codes = other.codes.clone();
+        this.copies = other.copies.clone();
+        this.size = other.size;
+        this.hash = other.hash;
+        this.seed = seed;
     }
 
     /**
      * Get a random array of tiles from the bag.
      *
      * @param n The number of tiles to be retrieved.
-     * @return An array of tiles if there are enough tiles in the bag, or null if the bag is empty.
+     * @return An array of n tiles, or of all the tiles left if the bag holds fewer.
+     * @throws QwirkleException If n is not strictly positive or if the bag is empty.
      */
     public Tile[] getRandomTiles(int n) {
         if(n <= 0){
@@ -55,23 +94,185 @@ public class Bag implements Serializable {
             throw new QwirkleException("There are no more tiles in the bag.");
         }
 
-        Tile[] randomTiles = new Tile[Math.min(n, tiles.size())];
-        Random random = new Random();
-        for (int i = 0; i < n; i++) {
-            int upperbound = tiles.size();
-            int intRandom = random.nextInt(upperbound);
-            Tile randomTile = tiles.remove(intRandom);
-            randomTiles[i] = randomTile;
+        return draw(new int[Math.min(n, size)]);
+    }
+
+    /**
+     * Draws random tiles from the bag, recording the position from which each tile is removed so that the draw can be
+     * undone by putBack.
+     *
+     * @param positions The array receiving the positions, whose length is the number of tiles to draw, at most the
+     *                  number of tiles in the bag.
+     * @return The tiles drawn, in the order they were drawn.
+     */
+    Tile[] draw(int[] positions) {
+        Tile[] randomTiles = new Tile[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            int position = nextInt(size);
+            positions[i] = position;
+            int code = codes[position];
+            swap(position, --size);
+            hash ^= Zobrist.bagTile(code, --copies[code]);
+            randomTiles[i] = Tile.fromCode(code);
         }
         return randomTiles;
     }
 
+    /**
+     * Draws given tiles from the bag, as a draw that dealt them would, recording the position from which each tile is
+     * removed so that the draw can be undone by putBack.
+     *
+     * @param tiles     The tiles to draw, which must be in the bag.
+     * @param positions The array receiving the positions, as long as the array of tiles.
+     * @throws QwirkleException If a tile is not in the bag.
+     */
+    void take(Tile[] tiles, int[] positions) {
+        for (int i = 0; i < tiles.length; i++) {
+            int code = tiles[i].code();
+            int position = 0;
+            while (position < size && codes[position] != code) {
+                position++;
+            }
+            if (position == size) {
+                throw new QwirkleException("The tiles to draw are not all in the bag.");
+            }
+            positions[i] = position;
+            swap(position, --size);
+            hash ^= Zobrist.bagTile(code, --copies[code]);
+        }
+    }
+
+    /**
+     * Puts back tiles drawn by the last draw, each one at the position it was drawn from, restoring the bag exactly.
+     *
+     * @param drawn     The tiles drawn.
+     * @param positions The positions recorded by the draw.
+     */
+    void putBack(Tile[] drawn, int[] positions) {
+        for (int i = drawn.length - 1; i >= 0; i--) {
+            swap(positions[i], size++);
+            int code = drawn[i].code();
+            hash ^= Zobrist.bagTile(code, copies[code]++);
+        }
+    }
+
+    /**
+     * Adds a tile to the bag, after the tiles left.
+     *
+     * @param code The code of the tile.
+     */
+    void add(int code) {
+        codes[size++] = (byte) code;
+        hash ^= Zobrist.bagTile(code, copies[code]++);
+    }
+
+    /**
+     * Gets the state of the random numbers of the bag, from which the next tiles are drawn.
+     *
+     * @return The state of the random numbers.
+     */
+    long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Restarts the random numbers of the bag from a seed: a state given by getSeed to draw the same tiles again, or
+     * a new seed to deal the tiles in another order.
+     *
+     * @param seed The seed of the random numbers.
+     */
+    void reseed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Creates a copy of the bag, holding the same tiles and dealing them in the same order.
+     *
+     * @return The copy of the bag.
+     */
+    Bag copy() {
+        return new Bag(this, seed);
+    }
+
+    /**
+     * Creates a copy of the bag holding the same tiles, but whose random numbers are independent from those of this
+     * bag. The random numbers of this bag move on.
+     *
+     * @return The copy of the bag.
+     */
+    Bag split() {
+        return new Bag(this, nextLong());
+    }
+
+    /**
+     * Gets the code of a tile left in the bag.
+     *
+     * @param index The position of the tile, between 0 and the number of tiles left excluded.
+     * @return The code of the tile.
+     */
+    int codeAt(int index) {
+        return codes[index];
+    }
+
+    /**
+     * Counts the copies of a tile left in the bag.
+     *
+     * @param code The code of the tile.
+     * @return The number of copies left, between 0 and 3.
+     */
+    int count(int code) {
+        return copies[code];
+    }
+
+    /**
+     * Gets the Zobrist hash of the tiles left in the bag. It only depends on the tiles left, not on their order.
+     *
+     * @return The hash of the bag, 0 for an empty bag.
+     */
+    long getHash() {
+        return hash;
+    }
+
     /**
      * Get the number of tiles currently in the bag.
      *
      * @return The number of tiles in the bag.
      */
     public int size() {
-        return tiles.size();
+        return size;
+    }
+
+    /**
+     * Exchanges the tiles held at two positions.
+     *
+     * @param i The first position.
+     * @param j The second position.
+     */
+    private void swap(int i, int j) {
+        byte code = codes[i];
+        codes[i] = codes[j];
+        codes[j] = code;
+    }
+
+    /**
+     * Gets a random number between 0, included, and a bound, excluded.
+     *
+     * @param bound The bound, strictly positive.
+     * @return The random number.
+     */
+    private int nextInt(int bound) {
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * Gets the next random number of the SplitMix64 sequence.
+     *
+     * @return The random number.
+     */
+    private long nextLong() {
+        long z = (seed += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
     }
 }
@@ -0,0 +1,42 @@
+package g61453.qwirkle.Model;
+
+import java.io.Serializable;
+
+/**
+ * Represents the storage of the cells of a grid, each cell holding the code of its tile or Tile.EMPTY.
+ */
+interface Board extends Serializable {
+    /**
+     * Checks whether a cell exists on this board.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return True if the cell exists, false otherwise.
+     */
+    boolean contains(int row, int col);
+
+    /**
+     * Gets the code of the tile stored in a cell, the cell must exist.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The code of the tile, or Tile.EMPTY if the cell is empty.
+     */
+    int get(int row, int col);
+
+    /**
+     * Stores the code of a tile in a cell, the cell must exist.
+     *
+     * @param row  The row of the cell.
+     * @param col  The column of the cell.
+     * @param code The code of the tile.
+     */
+    void set(int row, int col, int code);
+
+    /**
+     * Creates a copy of the board, holding the same tiles in the same cells.
+     *
+     * @return The copy of the board.
+     */
+    Board copy();
+}
@@ -0,0 +1,218 @@
+package g61453.qwirkle.Model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A map from cells to primitive values, using open addressing with linear probing on the packed coordinates of
+ * the cells. Missing cells are mapped to 0.
+ */
+class CellMap implements Serializable {
+    private static final long FREE = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 16;
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    /**
+     * Constructs an empty map.
+     */
+    CellMap() {
+        keys = newKeys(INITIAL_CAPACITY);
+        values = new long[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Constructs a copy of a map.
+     *
+     * @param other The map to copy.
+     */
+    private CellMap(CellMap other) {
+        keys = other.keys.clone();
+        values = other.values.clone();
+        size = other.size;
+    }
+
+    /**
+     * Creates a copy of the map, holding the same cells with the same values.
+     *
+     * @return The copy of the map.
+     */
+    CellMap copy() {
+        return new CellMap(this);
+    }
+
+    /**
+     * Packs the coordinates of a cell into a single key, the row Integer.MIN_VALUE being reserved.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The key of the cell.
+     */
+    static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the row of the cell packed into a key.
+     *
+     * @param key The key of the cell.
+     * @return The row of the cell.
+     */
+    static int rowOf(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Gets the column of the cell packed into a key.
+     *
+     * @param key The key of the cell.
+     * @return The column of the cell.
+     */
+    static int colOf(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Gets the value associated with a cell.
+     *
+     * @param key The key of the cell.
+     * @return The value of the cell, or 0 if the cell is not in the map.
+     */
+    long get(long key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != FREE) {
+            if (keys[i] == key) return values[i];
+            i = (i + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Associates a value with a cell, replacing its previous value.
+     *
+     * @param key   The key of the cell.
+     * @param value The value of the cell.
+     */
+    void put(long key, long value) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != FREE) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        if (size * 2 > keys.length) grow();
+    }
+
+    /**
+     * Removes a cell from the map, shifting back the cells that followed it in its probe sequence.
+     *
+     * @param key The key of the cell.
+     */
+    void remove(long key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != key) {
+            if (keys[i] == FREE) return;
+            i = (i + 1) & mask;
+        }
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == FREE) break;
+            int home = hash(keys[j]) & mask;
+            boolean homeBetween = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (!homeBetween) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = FREE;
+        values[i] = 0;
+        size--;
+    }
+
+    /**
+     * Gets the number of slots of the map, used to go through its cells.
+     *
+     * @return The capacity of the map.
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Checks whether a slot holds a cell.
+     *
+     * @param slot The index of the slot, lower than the capacity.
+     * @return True if the slot holds a cell, false otherwise.
+     */
+    boolean isUsed(int slot) {
+        return keys[slot] != FREE;
+    }
+
+    /**
+     * Gets the key of the cell held in a slot.
+     *
+     * @param slot The index of a used slot.
+     * @return The key of the cell.
+     */
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * Gets the number of cells in the map.
+     *
+     * @return The number of cells.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Doubles the capacity of the map and reinserts every cell.
+     */
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = newKeys(oldKeys.length * 2);
+        values = new long[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    /**
+     * Creates an array of free keys.
+     *
+     * @param capacity The capacity of the array, a power of two.
+     * @return The array of keys.
+     */
+    private static long[] newKeys(int capacity) {
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        return keys;
+    }
+
+    /**
+     * Spreads the bits of a key so that neighbouring cells fall into distant slots.
+     *
+     * @param key The key of the cell.
+     * @return The hash of the key.
+     */
+    private static int hash(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32));
+    }
+}
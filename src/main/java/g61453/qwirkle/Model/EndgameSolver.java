@@ -0,0 +1,259 @@
+package g61453.qwirkle.Model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plays the endgame of a game between two players perfectly. Once the bag is empty, the tiles of the other player are
+ * the 108 tiles less those of the grid and of the hand of the player, so nothing is hidden any more.
+ * The solver runs a negamax search with alpha-beta pruning on the points each player still wins, the finishing bonus
+ * included, the value of a position being the points the player to move wins from it less those the other player
+ * wins. The search is deepened one turn at a time, each depth starting with the best moves of the previous one found
+ * in the transposition table, then with the moves scoring the most. The position is solved when a search reaches the
+ * end of the game on every line, the move found then being optimal. A position searched to the end of the game is
+ * stored with the largest depth, so that it is trusted by deeper searches.
+ * When the time limit is reached, the best move of the deepest search completed is played. When no search could be
+ * completed, or outside an endgame between two players, the move of the fallback strategy is played.
+ */
+public class EndgameSolver implements Strategy {
+    private static final int DEFAULT_TABLE_MEGABYTES = 16;
+    private static final int MAX_DEPTH = 255;
+    private static final int INFINITY = 1_000_000;
+    private final long budgetNanos;
+    private final Strategy fallback;
+    private final TranspositionTable table;
+    private final MoveGenerator generator;
+    private Game game;
+    private long deadline;
+    private boolean stopped;
+    private boolean cut;
+    private boolean solved;
+    private int value;
+    private int depth;
+
+    /**
+     * Constructs an endgame solver with a transposition table of 16 megabytes.
+     *
+     * @param budgetNanos The time budget of a move, in nanoseconds.
+     * @param fallback    The strategy playing when the solver cannot.
+     * @throws QwirkleException If the budget is not strictly positive.
+     */
+    public EndgameSolver(long budgetNanos, Strategy fallback) {
+        this(budgetNanos, DEFAULT_TABLE_MEGABYTES, fallback);
+    }
+
+    /**
+     * Constructs an endgame solver.
+     *
+     * @param budgetNanos    The time budget of a move, in nanoseconds.
+     * @param tableMegabytes The size of the transposition table, in megabytes, taken outside the Java heap.
+     * @param fallback       The strategy playing when the solver cannot.
+     * @throws QwirkleException If the budget or the size of the table is not strictly positive.
+     */
+    public EndgameSolver(long budgetNanos, int tableMegabytes, Strategy fallback) {
+        if (budgetNanos <= 0) {
+            throw new QwirkleException("The time budget of a move must be strictly positive.");
+        }
+        this.budgetNanos = budgetNanos;
+        this.fallback = fallback;
+        this.table = new TranspositionTable(tableMegabytes);
+        this.generator = new MoveGenerator();
+    }
+
+    /**
+     * Chooses the best move of the current player in an endgame, or the move of the fallback strategy.
+     *
+     * @param game The game, which is not over.
+     * @return The chosen move, or null to pass.
+     */
+    @Override
+    public Move choose(Game game) {
+        return choose(game, System.nanoTime() + budgetNanos);
+    }
+
+    /**
+     * Chooses the best move of the current player in an endgame before a deadline, or the move of the fallback
+     * strategy before the same deadline.
+     *
+     * @param game     The game, which is not over.
+     * @param deadline The value of System.nanoTime after which the search stops.
+     * @return The chosen move, or null to pass.
+     */
+    @Override
+    public Move choose(Game game, long deadline) {
+        solved = false;
+        depth = 0;
+        if (game.getBag().size() != 0 || game.getPlayerCount() != 2) {
+            return fallback.choose(game, deadline);
+        }
+        this.deadline = deadline;
+        this.game = game.copy();
+        this.stopped = false;
+        List<Move> moves = this.game.getLegalMoves(generator);
+        int best = -1;
+        try {
+            for (int d = 1; d <= MAX_DEPTH && !solved; d++) {
+                cut = false;
+                int found = searchRoot(moves, d);
+                if (stopped) break;
+                best = found;
+                depth = d;
+                solved = !cut;
+            }
+        } finally {
+            this.game = null;
+        }
+        if (best < 0) {
+            return fallback.choose(game, deadline);
+        }
+        return moves.isEmpty() ? null : moves.get(best);
+    }
+
+    /**
+     * Tells whether the last move chosen was proven optimal.
+     *
+     * @return True if the last search reached the end of the game on every line, false otherwise.
+     */
+    public boolean isSolved() {
+        return solved;
+    }
+
+    /**
+     * Gets the value found for the last move chosen: the points the player wins until the end of the game, less those
+     * the other player wins, as far as the search could see.
+     *
+     * @return The value of the move.
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the number of turns looked ahead by the deepest search completed for the last move chosen.
+     *
+     * @return The depth, 0 if no search was completed.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Searches the moves of the root to a given depth.
+     *
+     * @param moves The legal moves of the root, in the order of the move generator.
+     * @param depth The number of turns to look ahead.
+     * @return The index of the best move, 0 for a pass.
+     */
+    private int searchRoot(List<Move> moves, int depth) {
+        if (moves.isEmpty()) {
+            game.pass();
+            value = -negamax(depth - 1, -INFINITY, INFINITY);
+            game.undo();
+            return 0;
+        }
+        int[] order = order(moves, TranspositionTable.move(table.probe(game.getHash())));
+        int alpha = -INFINITY;
+        int best = order[0];
+        for (int index : order) {
+            int score = game.apply(moves.get(index)).getScore();
+            int result = score - negamax(depth - 1, -INFINITY, score - alpha);
+            game.undo();
+            if (stopped) return best;
+            if (result > alpha) {
+                alpha = result;
+                best = index;
+            }
+        }
+        value = alpha;
+        table.store(game.getHash(), cut ? depth : MAX_DEPTH, TranspositionTable.EXACT, alpha, best);
+        return best;
+    }
+
+    /**
+     * Searches a position to a given depth.
+     *
+     * @param depth The number of turns to look ahead.
+     * @param alpha The value the player to move is already sure to get.
+     * @param beta  The value above which the other player avoids the position.
+     * @return The points the player to move wins less those of the other player, within the bounds.
+     */
+    private int negamax(int depth, int alpha, int beta) {
+        if (System.nanoTime() - deadline > 0) {
+            stopped = true;
+            return 0;
+        }
+        if (game.isOver()) return 0;
+        if (depth == 0) {
+            cut = true;
+            return 0;
+        }
+        long hash = game.getHash();
+        long entry = table.probe(hash);
+        int hint = TranspositionTable.NO_MOVE;
+        if (entry != 0) {
+            hint = TranspositionTable.move(entry);
+            int stored = TranspositionTable.value(entry);
+            int bound = TranspositionTable.bound(entry);
+            boolean proven = TranspositionTable.depth(entry) == MAX_DEPTH;
+            if (proven || TranspositionTable.depth(entry) >= depth) {
+                if (bound == TranspositionTable.LOWER) alpha = Math.max(alpha, stored);
+                else if (bound == TranspositionTable.UPPER) beta = Math.min(beta, stored);
+                if (bound == TranspositionTable.EXACT || alpha >= beta) {
+                    cut |= !proven;
+                    return stored;
+                }
+            }
+        }
+        boolean outerCut = cut;
+        cut = false;
+        int originalAlpha = alpha;
+        List<Move> moves = game.getLegalMoves(generator);
+        int best = -INFINITY;
+        int bestIndex = TranspositionTable.NO_MOVE;
+        if (moves.isEmpty()) {
+            game.pass();
+            best = -negamax(depth - 1, -beta, -alpha);
+            game.undo();
+        } else {
+            for (int index : order(moves, hint)) {
+                int score = game.apply(moves.get(index)).getScore();
+                int result = score - negamax(depth - 1, score - beta, score - alpha);
+                game.undo();
+                if (stopped) return 0;
+                if (result > best) {
+                    best = result;
+                    bestIndex = index;
+                }
+                alpha = Math.max(alpha, result);
+                if (alpha >= beta) break;
+            }
+        }
+        if (stopped) return 0;
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(hash, cut ? depth : MAX_DEPTH, bound, best, bestIndex);
+        cut |= outerCut;
+        return best;
+    }
+
+    /**
+     * Orders the moves of a position: the best move found before first, then the moves scoring the most.
+     *
+     * @param moves The legal moves, in the order of the move generator.
+     * @param hint  The index of the best move found before, or NO_MOVE.
+     * @return The indexes of the moves in the order they are searched.
+     */
+    private static int[] order(List<Move> moves, int hint) {
+        long[] keys = new long[moves.size()];
+        for (int i = 0; i < keys.length; i++) {
+            long priority = i == hint ? Integer.MAX_VALUE : moves.get(i).getScore();
+            keys[i] = (-priority << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+}
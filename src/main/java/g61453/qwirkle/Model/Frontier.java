@@ -0,0 +1,213 @@
+package g61453.qwirkle.Model;
+
+import java.io.Serializable;
+
+/**
+ * Keeps the frontier of a grid: its empty cells touching at least one tile. For each of them, it stores the mask
+ * of the tiles fitting the line of the row through the cell, and the mask of those fitting the line of its column,
+ * a tile being represented by the bit code - 1.
+ * The frontier is updated when a tile is placed or removed, around the runs the tile joins, so that it never scans
+ * the grid.
+ */
+class Frontier implements Serializable {
+    private static final long IN_FRONTIER = 1L << Tile.TYPES;
+    private static final long ALL_TILES = IN_FRONTIER - 1;
+    private final Board board;
+    private final RunIndex runs;
+    private final CellMap alongRow;
+    private final CellMap alongCol;
+
+    /**
+     * Constructs the empty frontier of an empty grid.
+     *
+     * @param board The board holding the cells of the grid.
+     * @param runs  The index of the runs of the grid.
+     */
+    Frontier(Board board, RunIndex runs) {
+        this.board = board;
+        this.runs = runs;
+        this.alongRow = new CellMap();
+        this.alongCol = new CellMap();
+    }
+
+    /**
+     * Constructs a copy of a frontier, kept up to date with the copies of its board and of its index of the runs.
+     *
+     * @param other The frontier to copy.
+     * @param board The copy of the board of the frontier.
+     * @param runs  The copy of the index of the runs of the frontier.
+     */
+    private Frontier(Frontier other, Board board, RunIndex runs) {
+        this.board = board;
+        this.runs = runs;
+        this.alongRow = other.alongRow.copy();
+        this.alongCol = other.alongCol.copy();
+    }
+
+    /**
+     * Creates a copy of the frontier, for the copy of its grid.
+     *
+     * @param board The copy of the board of the frontier.
+     * @param runs  The copy of the index of the runs of the frontier.
+     * @return The copy of the frontier.
+     */
+    Frontier copy(Board board, RunIndex runs) {
+        return new Frontier(this, board, runs);
+    }
+
+    /**
+     * Updates the frontier once a tile is placed on the board and recorded in the index of the runs.
+     * The masks change only for the empty cells at both ends of the runs through the tile.
+     *
+     * @param row   The row of the tile.
+     * @param col   The column of the tile.
+     * @param up    The number of tiles above the tile before it was placed.
+     * @param down  The number of tiles below the tile before it was placed.
+     * @param left  The number of tiles on the left of the tile before it was placed.
+     * @param right The number of tiles on the right of the tile before it was placed.
+     */
+    void place(int row, int col, int up, int down, int left, int right) {
+        long key = CellMap.key(row, col);
+        alongRow.remove(key);
+        alongCol.remove(key);
+        refreshEnds(row, col, up, down, left, right);
+    }
+
+    /**
+     * Updates the frontier once the last tile placed is removed from the board and from the index of the runs.
+     *
+     * @param row   The row of the tile.
+     * @param col   The column of the tile.
+     * @param up    The number of tiles above the tile.
+     * @param down  The number of tiles below the tile.
+     * @param left  The number of tiles on the left of the tile.
+     * @param right The number of tiles on the right of the tile.
+     */
+    void remove(int row, int col, int up, int down, int left, int right) {
+        refresh(row, col);
+        refreshEnds(row, col, up, down, left, right);
+    }
+
+    /**
+     * Checks whether an empty cell touches a tile.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return True if the cell belongs to the frontier, false otherwise.
+     */
+    boolean contains(int row, int col) {
+        return alongRow.get(CellMap.key(row, col)) != 0;
+    }
+
+    /**
+     * Gets the tiles that can be placed alone in a cell, fitting both its row and its column.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The mask of the fitting tiles, 0 if the cell does not belong to the frontier.
+     */
+    long fittingTiles(int row, int col) {
+        long key = CellMap.key(row, col);
+        return alongRow.get(key) & alongCol.get(key) & ALL_TILES;
+    }
+
+    /**
+     * Gets the tiles fitting the line crossing an empty cell along one axis.
+     *
+     * @param row      The row of the cell.
+     * @param col      The column of the cell.
+     * @param vertical True for the line of the column, false for the line of the row.
+     * @return The mask of the fitting tiles, every tile if the cell does not belong to the frontier.
+     */
+    long fittingTilesAlong(int row, int col, boolean vertical) {
+        long key = CellMap.key(row, col);
+        long fitting = (vertical ? alongCol : alongRow).get(key);
+        return fitting == 0 ? ALL_TILES : fitting & ALL_TILES;
+    }
+
+    /**
+     * Gets the number of cells of the frontier.
+     *
+     * @return The size of the frontier.
+     */
+    int size() {
+        return alongRow.size();
+    }
+
+    /**
+     * Gets the number of slots through which the cells of the frontier are reached.
+     *
+     * @return The number of slots.
+     */
+    int slots() {
+        return alongRow.capacity();
+    }
+
+    /**
+     * Checks whether a slot holds a cell of the frontier.
+     *
+     * @param slot The index of the slot, lower than the number of slots.
+     * @return True if the slot holds a cell, false otherwise.
+     */
+    boolean isCellAt(int slot) {
+        return alongRow.isUsed(slot);
+    }
+
+    /**
+     * Gets the row of the cell held in a slot.
+     *
+     * @param slot The index of a slot holding a cell.
+     * @return The row of the cell.
+     */
+    int rowAt(int slot) {
+        return CellMap.rowOf(alongRow.keyAt(slot));
+    }
+
+    /**
+     * Gets the column of the cell held in a slot.
+     *
+     * @param slot The index of a slot holding a cell.
+     * @return The column of the cell.
+     */
+    int colAt(int slot) {
+        return CellMap.colOf(alongRow.keyAt(slot));
+    }
+
+    /**
+     * Computes again the masks of the empty cells at the ends of the runs through a cell.
+     *
+     * @param row   The row of the cell.
+     * @param col   The column of the cell.
+     * @param up    The number of tiles above the cell.
+     * @param down  The number of tiles below the cell.
+     * @param left  The number of tiles on the left of the cell.
+     * @param right The number of tiles on the right of the cell.
+     */
+    private void refreshEnds(int row, int col, int up, int down, int left, int right) {
+        refresh(row - up - 1, col);
+        refresh(row + down + 1, col);
+        refresh(row, col - left - 1);
+        refresh(row, col + right + 1);
+    }
+
+    /**
+     * Computes again the masks of an empty cell from the runs around it, removing it from the frontier if it does
+     * not touch any tile anymore.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     */
+    private void refresh(int row, int col) {
+        if (!board.contains(row, col)) return;
+        int rowRun = RunIndex.join(runs.runNextTo(row, col, Direction.LEFT), runs.runNextTo(row, col, Direction.RIGHT));
+        int colRun = RunIndex.join(runs.runNextTo(row, col, Direction.UP), runs.runNextTo(row, col, Direction.DOWN));
+        long key = CellMap.key(row, col);
+        if (rowRun == 0 && colRun == 0) {
+            alongRow.remove(key);
+            alongCol.remove(key);
+            return;
+        }
+        alongRow.put(key, RunIndex.fittingTiles(rowRun) | IN_FRONTIER);
+        alongCol.put(key, RunIndex.fittingTiles(colRun) | IN_FRONTIER);
+    }
+}
@@ -3,9 +3,11 @@ package g61453.qwirkle.Model;
 import g61453.qwirkle.View.View;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,24 +18,108 @@ public class Game implements Serializable {
     private final GridView gridView;
     private final Grid grid;
     private final Player[] players;
+    private final Bag bag;
+    private final UnseenTiles unseen;
     private int indexCurrPlayer;
     private int countPass;
+    private final ArrayList<Turn> turns;
+    private transient Journal journal;
+    private transient Autosave autosave;
+    private transient IOException reportedFailure;
+    private static final int FINISHING_BONUS = 6;
+    private static final String BACKUPS_DIRECTORY = "backups";
+    private static final String JOURNALS_DIRECTORY = "journals";
 
     /**
      * Constructs a new Game object with the specified list of player names.
+     * The game owns a full bag of its own, saved along with the game.
      *
      * @param names The list of player names.
      */
     public Game(List<String> names) {
+        this(names, new Bag());
+    }
+
+    /**
+     * Constructs a new Game object with the specified list of player names, whose bag deals its tiles from a seed.
+     * Two games built from the same seed and played the same way deal the same tiles.
+     *
+     * @param names The list of player names.
+     * @param seed  The seed of the random numbers of the bag.
+     */
+    public Game(List<String> names, long seed) {
+        this(names, new Bag(seed));
+    }
+
+    /**
+     * Constructs a new Game object whose players draw their tiles from the given bag.
+     *
+     * @param names The list of player names.
+     * @param bag   The full bag of the game.
+     */
+    private Game(List<String> names, Bag bag) {
+        this.bag = bag;
         Player[] players = new Player[names.size()];
         for (int i = 0; i < names.size(); i++) {
-            Player player = new Player(names.get(i));
+            Player player = new Player(names.get(i), bag);
             players[i] = player;
         }
         this.players = players;
+        this.unseen = new UnseenTiles(players.length);
+        for (int i = 0; i < players.length; i++) {
+            unseen.reset(i, players[i]);
+        }
         this.indexCurrPlayer = 0;
         this.grid = new Grid();
         this.gridView = new GridView(this.grid);
+        this.turns = new ArrayList<>();
+    }
+
+    /**
+     * Constructs a game as it was saved, from its players, its bag and its grid. No turn is recorded, so the turns
+     * played before the save cannot be undone.
+     *
+     * @param players         The players, in order, drawing from the bag.
+     * @param bag             The bag of the game.
+     * @param grid            The grid of the game.
+     * @param indexCurrPlayer The index of the current player.
+     * @param countPass       The number of consecutive passes.
+     */
+    Game(Player[] players, Bag bag, Grid grid, int indexCurrPlayer, int countPass) {
+        this.bag = bag;
+        this.players = players;
+        this.grid = grid;
+        this.gridView = new GridView(grid);
+        this.unseen = new UnseenTiles(players.length);
+        for (int i = 0; i < grid.getTileCount(); i++) {
+            long cell = grid.placedCell(i);
+            unseen.onGrid(grid.get(CellMap.rowOf(cell), CellMap.colOf(cell)).code());
+        }
+        for (int i = 0; i < players.length; i++) {
+            unseen.reset(i, players[i]);
+        }
+        this.indexCurrPlayer = indexCurrPlayer;
+        this.countPass = countPass;
+        this.turns = new ArrayList<>();
+    }
+
+    /**
+     * Constructs a copy of a game, for copy.
+     *
+     * @param other The game to copy.
+     */
+    private Game(Game other) {
+        this.bag = other.bag.copy();
+        this.players = new Player[other.players.length];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = other.players[i].copy(bag);
+        }
+        this.grid = other.grid.copy();
+        this.gridView = new GridView(grid);
+        this.indexCurrPlayer = other.indexCurrPlayer;
+        this.countPass = other.countPass;
+        this.turns = new ArrayList<>(other.turns);
+        this.unseen = other.unseen.copy();
     }
 
     /**
@@ -41,23 +127,30 @@ public class Game implements Serializable {
      *
      * @param d  The direction of the tiles.
      * @param is The indexes of tiles in the current player's hand.
-     * @throws QwirkleException If there are issues with the first move.
      */
     public void first(Direction d, int... is) {
-        try {
-            Player currPlayer = players[indexCurrPlayer];
-            List<Tile> handCurrPlayer = getCurrentPlayerHand();
-            Tile[] line = getLineOfTiles(handCurrPlayer, is);
-            int score = grid.firstAdd(d, line);
-            currPlayer.removeTile(line);
-            currPlayer.refill();
-            currPlayer.addScore(score);
-            nextPlayer();
-            resetCountPass();
-        } catch (QwirkleException e) {
-            View.displayError(e.getMessage());
+        int result = evaluateFirst(is);
+        if (MoveError.isError(result)) {
+            View.displayError(MoveError.of(result).getMessage());
+            return;
         }
+        Turn turn = startTurn();
+        Tile[] line = new Tile[is.length];
+        selectTiles(getCurrentPlayerHand(), line, is);
+        finishTurn(turn, line, grid.firstAdd(d, line));
+    }
 
+    /**
+     * Evaluates the first move of the current player without playing it.
+     *
+     * @param is The indexes of tiles in the current player's hand.
+     * @return The score of the move, or the negative code of the MoveError refusing it.
+     */
+    public int evaluateFirst(int... is) {
+        Tile[] line = new Tile[is.length];
+        int result = selectTiles(getCurrentPlayerHand(), line, is);
+        if (MoveError.isError(result)) return result;
+        return grid.evaluateFirst(line);
     }
 
     /**
@@ -66,28 +159,37 @@ public class Game implements Serializable {
      * @param row   The row where the tile should be placed.
      * @param col   The column where the tile should be placed.
      * @param index The index of the tile in the current player's hand.
-     * @throws QwirkleException If there are issues with tile placement.
      */
     public void play(int row, int col, int index) {
-        try {
-            Player currPlayer = players[indexCurrPlayer];
-            List<Tile> handCurrPlayer = getCurrentPlayerHand();
+        int result = evaluate(row, col, index);
+        if (MoveError.isError(result)) {
+            View.displayError(MoveError.of(result).getMessage());
+            return;
+        }
+        Turn turn = startTurn();
+        Tile tile = getCurrentPlayerHand().get(index);
+        finishTurn(turn, new Tile[]{tile}, grid.add(row, col, tile));
+    }
 
-            if (handCurrPlayer.isEmpty()) {
-                throw new QwirkleException("Insufficient tiles for the action.");
-            }
+    /**
+     * Evaluates the placement of a single tile of the current player without playing it.
+     *
+     * @param row   The row where the tile would be placed.
+     * @param col   The column where the tile would be placed.
+     * @param index The index of the tile in the current player's hand.
+     * @return The score of the move, or the negative code of the MoveError refusing it.
+     */
+    public int evaluate(int row, int col, int index) {
+        List<Tile> handCurrPlayer = getCurrentPlayerHand();
 
-            Tile[] line = getLineOfTiles(handCurrPlayer, index);
-            int score = grid.add(row, col, line[0]);
-            currPlayer.removeTile(line[0]);
-            currPlayer.refill();
-            currPlayer.addScore(score);
-            nextPlayer();
-            resetCountPass();
-        } catch (QwirkleException e) {
-            View.displayError(e.getMessage());
+        if (handCurrPlayer.isEmpty()) {
+            return MoveError.INSUFFICIENT_TILES.toResult();
         }
 
+        Tile[] line = new Tile[1];
+        int result = selectTiles(handCurrPlayer, line, index);
+        if (MoveError.isError(result)) return result;
+        return grid.evaluate(row, col, line[0]);
     }
 
     /**
@@ -97,55 +199,96 @@ public class Game implements Serializable {
      * @param col     The column where the tiles should start.
      * @param d       The direction of the tiles.
      * @param indexes The indexes of tiles in the current player's hand.
-     * @throws QwirkleException If there are issues with tile placement.
      */
     public void play(int row, int col, Direction d, int... indexes) {
-        try {
-            Player currPlayer = players[indexCurrPlayer];
-            List<Tile> handCurrPlayer = getCurrentPlayerHand();
+        int result = evaluate(row, col, d, indexes);
+        if (MoveError.isError(result)) {
+            View.displayError(MoveError.of(result).getMessage());
+            return;
+        }
+        Turn turn = startTurn();
+        Tile[] line = new Tile[indexes.length];
+        selectTiles(getCurrentPlayerHand(), line, indexes);
+        finishTurn(turn, line, grid.add(row, col, d, line));
+    }
 
-            if (areThereInsufficientTiles(handCurrPlayer, indexes.length)) {
-                throw new QwirkleException("Insufficient tiles for the action.");
-            }
+    /**
+     * Evaluates the placement of multiple tiles of the current player in a specified direction without playing them.
+     *
+     * @param row     The row where the tiles would start.
+     * @param col     The column where the tiles would start.
+     * @param d       The direction of the tiles.
+     * @param indexes The indexes of tiles in the current player's hand.
+     * @return The score of the move, or the negative code of the MoveError refusing it.
+     */
+    public int evaluate(int row, int col, Direction d, int... indexes) {
+        List<Tile> handCurrPlayer = getCurrentPlayerHand();
 
-            Tile[] line = getLineOfTiles(handCurrPlayer, indexes);
-            int score = grid.add(row, col, d, line);
-            currPlayer.removeTile(line);
-            currPlayer.refill();
-            currPlayer.addScore(score);
-            nextPlayer();
-            resetCountPass();
-        } catch (QwirkleException e) {
-            View.displayError(e.getMessage());
+        if (areThereInsufficientTiles(handCurrPlayer, indexes.length)) {
+            return MoveError.INSUFFICIENT_TILES.toResult();
         }
+
+        Tile[] line = new Tile[indexes.length];
+        int result = selectTiles(handCurrPlayer, line, indexes);
+        if (MoveError.isError(result)) return result;
+        return grid.evaluate(row, col, d, line);
     }
 
     /**
      * Places multiple tiles on the grid based on a specific pattern.
      *
      * @param is The indexes of tiles in the current player's hand.
-     * @throws QwirkleException If there are issues with tile placement.
      */
     public void play(int... is) {
-        try {
-            Player currPlayer = players[indexCurrPlayer];
-            List<Tile> handCurrPlayer = getCurrentPlayerHand();
+        int result = evaluate(is);
+        if (MoveError.isError(result)) {
+            View.displayError(MoveError.of(result).getMessage());
+            return;
+        }
+        Turn turn = startTurn();
+        Tile[] tilesToRemove = new Tile[is.length / 3];
+        TileAtPosition[] line = new TileAtPosition[is.length / 3];
+        selectTilesAtPositions(getCurrentPlayerHand(), line, tilesToRemove, is);
+        finishTurn(turn, tilesToRemove, grid.add(line));
+    }
 
-            if (areThereInsufficientTiles(handCurrPlayer, is.length / 3)) {
-                throw new QwirkleException("Insufficient tiles for the action.");
-            }
+    /**
+     * Evaluates the placement of multiple tiles of the current player at specified positions without playing them.
+     *
+     * @param is The row, the column and the index in the current player's hand of each tile.
+     * @return The score of the move, or the negative code of the MoveError refusing it.
+     */
+    public int evaluate(int... is) {
+        List<Tile> handCurrPlayer = getCurrentPlayerHand();
 
-            Tile[] tilesToRemove = new Tile[is.length / 3];
-            TileAtPosition[] line = getLineOfTAPS(handCurrPlayer, tilesToRemove, is);
-            int score = grid.add(line);
-            currPlayer.removeTile(tilesToRemove);
-            currPlayer.refill();
-            currPlayer.addScore(score);
-            nextPlayer();
-            resetCountPass();
-        } catch (QwirkleException e) {
-            View.displayError(e.getMessage());
+        if (areThereInsufficientTiles(handCurrPlayer, is.length / 3)) {
+            return MoveError.INSUFFICIENT_TILES.toResult();
         }
+
+        Tile[] tilesToRemove = new Tile[is.length / 3];
+        TileAtPosition[] line = new TileAtPosition[is.length / 3];
+        int result = selectTilesAtPositions(handCurrPlayer, line, tilesToRemove, is);
+        if (MoveError.isError(result)) return result;
+        return grid.evaluate(line);
+    }
+
+    /**
+     * Lists the legal moves of the current player, with their score.
+     *
+     * @return The legal moves of the current player, possibly none.
+     */
+    public List<Move> getLegalMoves() {
+        return getLegalMoves(new MoveGenerator());
+    }
+
+    /**
+     * Lists the legal moves of the current player with a given move generator, so that its buffers are reused.
+     *
+     * @param generator The move generator.
+     * @return The legal moves of the current player, possibly none.
+     */
+    public List<Move> getLegalMoves(MoveGenerator generator) {
+        return generator.generate(gridView, getCurrentPlayerHand());
     }
 
     /**
@@ -181,14 +324,234 @@ public class Game implements Serializable {
         return players[indexCurrPlayer].getScore();
     }
 
+    /**
+     * Gets the number of players of the game.
+     *
+     * @return The number of players.
+     */
+    public int getPlayerCount() {
+        return players.length;
+    }
+
+    /**
+     * Gets the index of the current player, in the order the names were given.
+     *
+     * @return The index of the current player.
+     */
+    public int getCurrentPlayerIndex() {
+        return indexCurrPlayer;
+    }
+
+    /**
+     * Gets the score of a player.
+     *
+     * @param index The index of the player, in the order the names were given.
+     * @return The score of the player.
+     */
+    public int getPlayerScore(int index) {
+        return players[index].getScore();
+    }
+
     /**
      * Advances the turn to the next player.
+     *
+     * @return The record of the turn, with which the pass can be reverted.
      */
-    public void pass() {
+    public Turn pass() {
+        Turn turn = startTurn();
+        turn.complete(grid.getTileCount(), new Tile[0], new int[0], 0);
+        turns.add(turn);
         nextPlayer();
         if (isBagEmpty()) {
             countPass++;
         }
+        record(turn);
+        autosave();
+        return turn;
+    }
+
+    /**
+     * Plays a legal move for the current player, as listed by the move generator.
+     *
+     * @param move The move to play.
+     * @return The record of the turn, with which the move can be reverted.
+     * @throws QwirkleException If the tiles of the move are not in the hand of the current player, or if the move is
+     *                          not allowed on the grid.
+     */
+    public Turn apply(Move move) {
+        return apply(move, null);
+    }
+
+    /**
+     * Plays a legal move for the current player, who then draws given tiles instead of random ones, so that a turn
+     * recorded can be played again as it was.
+     *
+     * @param move  The move to play.
+     * @param drawn The tiles drawn after the move, as many as the player draws, or null to draw random tiles.
+     * @return The record of the turn, with which the move can be reverted.
+     * @throws QwirkleException If the tiles of the move are not in the hand of the current player, if the tiles drawn
+     *                          are not in the bag, or if the move is not allowed on the grid.
+     */
+    Turn apply(Move move, Tile[] drawn) {
+        List<Tile> handCurrPlayer = getCurrentPlayerHand();
+        Tile[] line = new Tile[move.size()];
+        for (int i = 0; i < line.length; i++) {
+            int index = move.getHandIndex(i);
+            if (index < 0 || index >= handCurrPlayer.size() || !handCurrPlayer.get(index).equals(move.getTile(i))) {
+                throw new QwirkleException(MoveError.UNKNOWN_TILE.getMessage());
+            }
+            line[i] = move.getTile(i);
+        }
+        if (drawn != null && !canDraw(handCurrPlayer.size() - line.length, drawn)) {
+            throw new QwirkleException("The tiles drawn are not in the bag.");
+        }
+        Turn turn = startTurn();
+        int score = switch (move.getKind()) {
+            case FIRST -> grid.firstAdd(move.getDirection(), line);
+            case SINGLE -> grid.add(move.getRow(0), move.getCol(0), line[0]);
+            case LINE -> grid.add(move.getRow(0), move.getCol(0), move.getDirection(), line);
+            case PLIC_PLOC -> grid.add(move.toTilesAtPositions());
+        };
+        finishTurn(turn, line, score, drawn);
+        return turn;
+    }
+
+    /**
+     * Plays again a turn known to follow the rules, as read from an archived game whose checksum matches: neither the
+     * hand of the current player, nor the grid, nor the bag is checked.
+     *
+     * @param line  The tiles placed and their positions, in the order they were placed.
+     * @param drawn The tiles drawn after the move, as many as the player draws.
+     * @return The record of the turn, with which the move can be reverted.
+     */
+    Turn applyUnchecked(TileAtPosition[] line, Tile[] drawn) {
+        Tile[] played = new Tile[line.length];
+        for (int i = 0; i < line.length; i++) {
+            played[i] = line[i].tile();
+        }
+        Turn turn = startTurn();
+        finishTurn(turn, played, grid.addUnchecked(line), drawn);
+        return turn;
+    }
+
+    /**
+     * Checks whether the current player can draw given tiles once they hold a number of tiles: as many tiles as they
+     * draw, all of them in the bag.
+     *
+     * @param handSize The number of tiles held before drawing.
+     * @param drawn    The tiles to draw.
+     * @return True if the tiles can be drawn, false otherwise.
+     */
+    private boolean canDraw(int handSize, Tile[] drawn) {
+        if (drawn.length != Math.min(Player.HAND_SIZE - handSize, bag.size())) return false;
+        int[] needed = new int[Tile.TYPES + 1];
+        for (Tile tile : drawn) {
+            if (++needed[tile.code()] > bag.count(tile.code())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Builds the move of the current player placing tiles in cells, taking the tiles from their hand. The first move
+     * of the game is played from the center of the grid in the direction of its tiles, the others as tiles placed at
+     * positions, so that a turn recorded from the tiles placed can be played again.
+     *
+     * @param rows  The rows of the tiles, in the order they were placed.
+     * @param cols  The columns of the tiles, in the order they were placed.
+     * @param tiles The tiles, in the order they were placed.
+     * @return The move, not checked on the grid, or null if the tiles are not in the hand of the player or if the
+     * tiles of a first move are not in line.
+     */
+    Move toMove(int[] rows, int[] cols, Tile[] tiles) {
+        List<Tile> hand = getCurrentPlayerHand();
+        int[] indexes = new int[tiles.length];
+        int used = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            indexes[i] = -1;
+            for (int j = 0; j < hand.size() && indexes[i] < 0; j++) {
+                if ((used & (1 << j)) == 0 && hand.get(j).equals(tiles[i])) {
+                    indexes[i] = j;
+                    used |= 1 << j;
+                }
+            }
+            if (indexes[i] < 0) return null;
+        }
+        if (!grid.isEmpty()) {
+            return new Move(MoveKind.PLIC_PLOC, null, rows, cols, indexes, tiles, 0);
+        }
+        Direction direction = Direction.UP;
+        if (tiles.length > 1) {
+            direction = null;
+            for (Direction d : Direction.values()) {
+                if (d.getDeltaRow() == rows[1] - rows[0] && d.getDeltaCol() == cols[1] - cols[0]) direction = d;
+            }
+            if (direction == null) return null;
+        }
+        return new Move(MoveKind.FIRST, direction, rows, cols, indexes, tiles, 0);
+    }
+
+    /**
+     * Reverts the last turn played, restoring the grid, the bag and its random numbers, the hand and the score of its
+     * player, the current player and the count of passes as they were before it.
+     *
+     * @param turn The record of the last turn played.
+     * @throws QwirkleException If the turn is not the last one played.
+     */
+    public void revert(Turn turn) {
+        if (turns.isEmpty() || turns.get(turns.size() - 1) != turn) {
+            throw new QwirkleException("Only the last turn played can be reverted.");
+        }
+        turns.remove(turns.size() - 1);
+        int seat = turn.getPlayerIndex();
+        Player player = players[seat];
+        grid.removeLastTiles(turn.getTilesPlaced());
+        bag.putBack(turn.getDrawn(), turn.getDrawnPositions());
+        bag.reseed(turn.getPreviousSeed());
+        int[] played = new int[Tile.TYPES + 1];
+        for (Tile tile : turn.getPreviousHand()) {
+            played[tile.code()]++;
+        }
+        for (Tile tile : turn.getDrawn()) {
+            played[tile.code()]++;
+            unseen.putBack(seat, tile.code());
+        }
+        for (int code = 1; code <= Tile.TYPES; code++) {
+            for (int copy = player.count(code); copy < played[code]; copy++) {
+                unseen.removed(seat, code);
+            }
+        }
+        player.restore(turn.getPreviousHand(), turn.getPreviousScore());
+        indexCurrPlayer = seat;
+        countPass = turn.getPreviousCountPass();
+        if (journal != null) {
+            try {
+                journal.recordUndo();
+            } catch (IOException e) {
+                stopJournal(e);
+            }
+        }
+        autosave();
+    }
+
+    /**
+     * Reverts the last turn played, if any.
+     *
+     * @return True if a turn was reverted, false if no turn was played yet.
+     */
+    public boolean undo() {
+        if (turns.isEmpty()) return false;
+        revert(turns.get(turns.size() - 1));
+        return true;
+    }
+
+    /**
+     * Gets the number of turns that can be reverted: those played since the game was created, read or started a
+     * journal, less those reverted.
+     *
+     * @return The number of turns.
+     */
+    public int getTurnCount() {
+        return turns.size();
     }
 
     /**
@@ -200,8 +563,176 @@ public class Game implements Serializable {
         return gridView;
     }
 
+    /**
+     * Gets a player of the game.
+     *
+     * @param index The index of the player, in the order the names were given.
+     * @return The player.
+     */
+    Player getPlayer(int index) {
+        return players[index];
+    }
+
+    /**
+     * Gets the turns played since the game was created, read or started a journal, less those reverted.
+     *
+     * @return The turns, in the order they were played.
+     */
+    List<Turn> getTurns() {
+        return turns;
+    }
+
+    /**
+     * Gets the number of consecutive passes.
+     *
+     * @return The number of passes since the last tile placed.
+     */
+    int getCountPass() {
+        return countPass;
+    }
+
+    /**
+     * Gets the grid of the game.
+     *
+     * @return The grid.
+     */
+    Grid getGridModel() {
+        return grid;
+    }
+
+    /**
+     * Gets the number of tiles left in the bag.
+     *
+     * @return The number of tiles in the bag.
+     */
+    public int getBagSize() {
+        return bag.size();
+    }
+
+    /**
+     * Gets the bag owned by the game, from which its players draw.
+     *
+     * @return The bag of the game.
+     */
+    Bag getBag() {
+        return bag;
+    }
+
+    /**
+     * Creates a deep copy of the game, with its grid, its players, its bag and its turns, which can be played and
+     * reverted without changing this game. The grid, the bag and the hands are copied array by array; the turns,
+     * which do not change once played, are shared with this game. The copy keeps no journal and no autosave.
+     *
+     * @return The copy of the game.
+     */
+    public Game copy() {
+        return new Game(this);
+    }
+
+    /**
+     * Deals again the tiles a player cannot see: the hands of the other players and the tiles of the bag are put
+     * together, then each other player draws as many tiles as they held, in an order given by a seed. What the
+     * player knows of the game is unchanged, the grid, their hand and the scores staying the same.
+     * The turns played before cannot be reverted afterwards.
+     *
+     * @param seat The index of the player whose view of the game is kept.
+     * @param seed The seed of the random numbers of the bag.
+     */
+    void redeal(int seat, long seed) {
+        int[] sizes = new int[players.length];
+        for (int i = 0; i < players.length; i++) {
+            if (i == seat) continue;
+            Player player = players[i];
+            Tile[] hand = player.getHandSnapshot();
+            sizes[i] = hand.length;
+            for (Tile tile : hand) {
+                bag.add(tile.code());
+            }
+            player.restore(new Tile[0], player.getScore());
+        }
+        bag.reseed(seed);
+        for (int i = 0; i < players.length; i++) {
+            if (i != seat && sizes[i] > 0) {
+                players[i].refill(new int[sizes[i]]);
+            }
+            if (i != seat) {
+                unseen.reset(i, players[i]);
+            }
+        }
+    }
+
+    /**
+     * Counts the copies of a tile a player has not seen: those in the bag or in the hands of the other players.
+     *
+     * @param seat The index of the player, in the order the names were given.
+     * @param tile The tile.
+     * @return The number of unseen copies, between 0 and 3.
+     */
+    public int getUnseenCount(int seat, Tile tile) {
+        return unseen.count(seat, tile.code());
+    }
+
+    /**
+     * Counts the tiles a player has not seen: those in the bag or in the hands of the other players.
+     *
+     * @param seat The index of the player, in the order the names were given.
+     * @return The number of unseen tiles.
+     */
+    public int getUnseenTotal(int seat) {
+        return unseen.total(seat);
+    }
+
+    /**
+     * Computes the probability, as seen by a player, that another player holds at least one of the given tiles.
+     *
+     * @param seat     The index of the player, in the order the names were given.
+     * @param opponent The index of the other player.
+     * @param tiles    The tiles looked for.
+     * @return The probability, between 0 and 1.
+     */
+    public double getHoldingProbability(int seat, int opponent, Tile... tiles) {
+        long mask = 0;
+        for (Tile tile : tiles) {
+            mask |= 1L << (tile.code() - 1);
+        }
+        return unseen.probabilityHeld(seat, mask, players[opponent].getHand().size());
+    }
+
+    /**
+     * Computes the probability, as seen by a player, that another player holds a tile which can be placed in an empty
+     * cell, fitting both its row and its column, such as a tile completing a line.
+     *
+     * @param seat     The index of the player, in the order the names were given.
+     * @param opponent The index of the other player.
+     * @param row      The row of the empty cell.
+     * @param col      The column of the empty cell.
+     * @return The probability, between 0 and 1, 0 if no tile fits the cell or it does not touch the grid.
+     */
+    public double getFittingProbability(int seat, int opponent, int row, int col) {
+        long fitting = grid.getFrontier().fittingTiles(row, col);
+        return unseen.probabilityHeld(seat, fitting, players[opponent].getHand().size());
+    }
+
+    /**
+     * Gets the Zobrist hash of the position of the game: the tiles of the grid, the hand of each player, the tiles
+     * left in the bag, the player to move and the number of consecutive passes.
+     * The scores are not part of the position, the moves left and the points they bring being the same whatever
+     * the points already scored.
+     *
+     * @return The hash of the position.
+     */
+    public long getHash() {
+        long hash = grid.getHash() ^ bag.getHash()
+                ^ Zobrist.playerToMove(indexCurrPlayer) ^ Zobrist.passes(countPass);
+        for (int i = 0; i < players.length; i++) {
+            hash ^= Zobrist.seat(i, players[i].getHandHash());
+        }
+        return hash;
+    }
+
     /**
      * Checks if the game is over.
+     * The bonus for finishing the game is awarded when the last tile is played, so this method changes nothing.
      * This method determines whether the game is over by evaluating two conditions:
      * 1. The bag of tiles is empty, indicating no more tiles are available.
      * 2. Either at least one player has an empty hand (indicating the game round has finished),
@@ -214,65 +745,64 @@ public class Game implements Serializable {
     }
 
     /**
-     * Retrieves an array of tiles based on their indexes in the player's hand.
+     * Retrieves the tiles corresponding to their indexes in the player's hand.
      *
      * @param handCurrPlayer The current player's hand of tiles.
+     * @param line           The array receiving the tiles corresponding to the specified indexes.
      * @param indexes        The indexes of tiles in the player's hand.
-     * @return An array of tiles corresponding to the specified indexes.
+     * @return 0 if every index selects a distinct tile, or the code of the MoveError refusing the selection.
      */
-    private Tile[] getLineOfTiles(List<Tile> handCurrPlayer, int... indexes) {
-        Tile[] line = new Tile[indexes.length];
-        ArrayList<Integer> blacklistIndex = new ArrayList<>();
+    private static int selectTiles(List<Tile> handCurrPlayer, Tile[] line, int... indexes) {
+        int selectedIndexes = 0;
         for (int i = 0; i < indexes.length; i++) {
             int indexTile = indexes[i];
 
-            if (indexTile >= handCurrPlayer.size()) {
-                throw new QwirkleException("The selected tiles do not exist.");
+            if (indexTile < 0 || indexTile >= handCurrPlayer.size()) {
+                return MoveError.UNKNOWN_TILE.toResult();
             }
 
-            if (blacklistIndex.contains(indexes[i])) {
-                throw new QwirkleException("You cannot select many times the same tile.");
+            if ((selectedIndexes & (1 << indexTile)) != 0) {
+                return MoveError.TILE_SELECTED_TWICE.toResult();
             }
-            Tile tile = handCurrPlayer.get(indexTile);
-            line[i] = tile;
-            blacklistIndex.add(indexTile);
+            line[i] = handCurrPlayer.get(indexTile);
+            selectedIndexes |= 1 << indexTile;
         }
-        return line;
+        return 0;
     }
 
     /**
-     * Retrieves an array of TileAtPosition objects based on the indexes of tiles in the player's hand.
+     * Retrieves the tiles and their positions based on the indexes of tiles in the player's hand.
      *
      * @param handCurrPlayer The current player's hand of tiles.
+     * @param line           The array receiving the TileAtPosition objects representing tiles and their positions.
      * @param tilesToRemove  An array to store the tiles that will be removed from the hand.
-     * @param indexes        The indexes of tiles in the player's hand.
-     * @return An array of TileAtPosition objects representing tiles and their positions.
+     * @param indexes        The row, the column and the index in the player's hand of each tile.
+     * @return 0 if every index selects a distinct tile, or the code of the MoveError refusing the selection.
      */
-    private TileAtPosition[] getLineOfTAPS(List<Tile> handCurrPlayer, Tile[] tilesToRemove, int... indexes) {
-        TileAtPosition[] line = new TileAtPosition[indexes.length / 3];
-        ArrayList<Integer> blacklistIndex = new ArrayList<>();
+    private static int selectTilesAtPositions(List<Tile> handCurrPlayer, TileAtPosition[] line,
+                                              Tile[] tilesToRemove, int... indexes) {
+        int selectedIndexes = 0;
         int indexLine = 0;
-        for (int j = 0; j < indexes.length; j += 3) {
+        for (int j = 0; j + 2 < indexes.length; j += 3) {
             int row = indexes[j];
             int col = indexes[j + 1];
             int indexTile = indexes[j + 2];
 
-            if (indexTile >= handCurrPlayer.size()) {
-                throw new QwirkleException("The selected tiles do not exist.");
+            if (indexTile < 0 || indexTile >= handCurrPlayer.size()) {
+                return MoveError.UNKNOWN_TILE.toResult();
             }
 
-            if (blacklistIndex.contains(indexTile)) {
-                throw new QwirkleException("You cannot select many times the same tile.");
+            if ((selectedIndexes & (1 << indexTile)) != 0) {
+                return MoveError.TILE_SELECTED_TWICE.toResult();
             }
 
             Tile tile = handCurrPlayer.get(indexTile);
-            TileAtPosition tap = new TileAtPosition(row, col, tile);
-            line[indexLine] = tap;
+            line[indexLine] = new TileAtPosition(row, col, tile);
             tilesToRemove[indexLine] = tile;
             indexLine++;
-            blacklistIndex.add(indexTile);
+            selectedIndexes |= 1 << indexTile;
         }
-        return line;
+        return 0;
     }
 
     /**
@@ -281,13 +811,12 @@ public class Game implements Serializable {
      * @return true if the bag of tiles has no remaining tiles, false otherwise.
      */
     private boolean isBagEmpty() {
-        return Bag.getInstance().size() == 0;
+        return bag.size() == 0;
     }
 
     /**
      * Checks whether there is any player with an empty hand.
      * This method iterates through the list of players and checks if any player's hand is empty.
-     * If an empty hand is found, the player is awarded six points for finishing their tiles.
      *
      * @return true if at least one player has an empty hand, indicating the game is finishing,
      * false otherwise.
@@ -295,7 +824,6 @@ public class Game implements Serializable {
     private boolean isThereEmptyHand() {
         for (Player player : players) {
             if (player.getHand().isEmpty()) {
-                addSixPointsForFinishing(player);
                 return true;
             }
         }
@@ -315,14 +843,106 @@ public class Game implements Serializable {
     }
 
     /**
-     * Adds six points to a player's score for finishing their tiles.
-     * This method increases the score of the provided player by six points as a reward
-     * for successfully playing all their tiles and finishing the game round.
+     * Starts the record of a turn of the current player, before anything changes.
+     *
+     * @return The record of the turn.
+     */
+    private Turn startTurn() {
+        Player currPlayer = players[indexCurrPlayer];
+        return new Turn(indexCurrPlayer, countPass, currPlayer.getScore(), currPlayer.getHandSnapshot(),
+                grid.getTileCount(), bag.getSeed());
+    }
+
+    /**
+     * Completes a turn once its tiles are placed on the grid: removes them from the hand of the current player,
+     * refills the hand, adds the score, with six more points if the player finishes the game, and passes to the next
+     * player.
+     *
+     * @param turn   The record of the turn.
+     * @param played The tiles placed on the grid.
+     * @param score  The score obtained for the placement.
+     */
+    private void finishTurn(Turn turn, Tile[] played, int score) {
+        finishTurn(turn, played, score, null);
+    }
+
+    /**
+     * Completes a turn once its tiles are placed on the grid, the current player drawing given tiles.
+     *
+     * @param turn   The record of the turn.
+     * @param played The tiles placed on the grid.
+     * @param score  The score obtained for the placement.
+     * @param forced The tiles drawn, checked by canDraw, or null to draw random tiles.
+     */
+    private void finishTurn(Turn turn, Tile[] played, int score, Tile[] forced) {
+        Player currPlayer = players[indexCurrPlayer];
+        currPlayer.removeTile(played);
+        for (Tile tile : played) {
+            unseen.placed(indexCurrPlayer, tile.code());
+        }
+        int[] positions = new int[currPlayer.getTilesToDraw()];
+        Tile[] drawn = forced;
+        if (forced == null) {
+            drawn = currPlayer.refill(positions);
+        } else {
+            currPlayer.refill(forced, positions);
+        }
+        for (Tile tile : drawn) {
+            unseen.drawn(indexCurrPlayer, tile.code());
+        }
+        if (currPlayer.getHand().isEmpty() && isBagEmpty()) {
+            score += FINISHING_BONUS;
+        }
+        currPlayer.addScore(score);
+        turn.complete(grid.getTileCount(), drawn, positions, score);
+        turns.add(turn);
+        nextPlayer();
+        resetCountPass();
+        record(turn);
+        autosave();
+    }
+
+    /**
+     * Records a turn in the journal of the game, if there is one.
+     *
+     * @param turn The record of the turn, once it is played.
+     */
+    private void record(Turn turn) {
+        if (journal == null) return;
+        try {
+            journal.recordTurn(grid, turn, players[turn.getPlayerIndex()].getScore());
+        } catch (IOException e) {
+            stopJournal(e);
+        }
+    }
+
+    /**
+     * Hands the game to its autosave, if there is one, once a turn is played or reverted. A save that failed since the
+     * last turn is reported once, the next saves being tried all the same.
+     */
+    private void autosave() {
+        if (autosave == null) return;
+        IOException failure = autosave.getFailure();
+        if (failure != null && failure != reportedFailure) {
+            View.displayError("The game cannot be saved: " + failure.getMessage());
+        }
+        reportedFailure = failure;
+        autosave.submit(this);
+    }
+
+    /**
+     * Stops the journal of the game after it failed to record a turn, which stays played.
      *
-     * @param player The player to whom six points are to be added for finishing.
+     * @param cause The failure of the journal.
      */
-    private void addSixPointsForFinishing(Player player) {
-        player.addScore(6);
+    private void stopJournal(IOException cause) {
+        View.displayError("The journal cannot be written and is stopped: " + cause.getMessage());
+        try {
+            journal.close();
+        } catch (IOException ignored) {
+            // The journal is given up anyway.
+        }
+        journal = null;
     }
 
     /**
@@ -366,45 +986,150 @@ public class Game implements Serializable {
     }
 
     /**
-     * Serializes and writes the current Game instance to a file.
+     * Writes the current game to a file of the backups folder, in the binary format of SaveFormat.
      *
-     * @param fileName The name of the file to write the serialized Game object to.
-     * @throws QwirkleException If there's an issue with creating directories, writing the file, or serializing the object.
+     * @param fileName The name of the file to write the game to.
+     * @throws QwirkleException If the folder cannot be created or the file cannot be written.
      */
     public void write(String fileName) {
-        String directoryName = "backups" + File.separator;
         try {
-            Path directory = Paths.get(directoryName);
+            Path directory = Paths.get(BACKUPS_DIRECTORY);
             if (!Files.exists(directory)) {
                 Files.createDirectories(directory);
             }
-            FileOutputStream fos = new FileOutputStream(directoryName + fileName);
-            ObjectOutputStream os = new ObjectOutputStream(fos);
-            os.writeObject(this);
-            os.close();
-        } catch (Exception e) {
-            System.out.println(e.getMessage());
-            throw new QwirkleException("An error has occurred.");
+            SaveFormat.write(this, directory.resolve(fileName));
+        } catch (IOException e) {
+            throw new QwirkleException("The game cannot be saved: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts saving the game in the background in a file of the backups folder, at the end of every turn from now on.
+     * The game is saved a first time at once.
+     *
+     * @param fileName The name of the file to save the game to.
+     * @throws QwirkleException If the folder cannot be created.
+     */
+    public void startAutosave(String fileName) {
+        stopAutosave();
+        try {
+            Path directory = Paths.get(BACKUPS_DIRECTORY);
+            if (!Files.exists(directory)) {
+                Files.createDirectories(directory);
+            }
+            autosave = new Autosave(directory.resolve(fileName));
+        } catch (IOException e) {
+            throw new QwirkleException("The game cannot be saved: " + e.getMessage());
+        }
+        reportedFailure = null;
+        autosave.submit(this);
+    }
+
+    /**
+     * Stops saving the game in the background, once the last save handed is written, if the game is saved.
+     *
+     * @throws QwirkleException If the last save could not be written.
+     */
+    public void stopAutosave() {
+        if (autosave == null) return;
+        try {
+            autosave.close();
+        } catch (IOException e) {
+            throw new QwirkleException("The game cannot be saved: " + e.getMessage());
+        } finally {
+            autosave = null;
         }
     }
 
     /**
-     * Restores a serialized Game object from a file.
+     * Reads a game from a file of the backups folder, written by write.
      *
-     * @param fileName The name of the file containing the serialized Game object.
-     * @return The deserialized Game instance restored from the file.
-     * @throws QwirkleException If there's an issue with reading the file or deserializing the object.
+     * @param fileName The name of the file containing the game.
+     * @return The game read from the file.
+     * @throws QwirkleException If the file cannot be read, or if it does not hold a valid save.
      */
     public static Game getFromFile(String fileName) {
-        String directoryName = "backups" + File.separator;
         try {
-            FileInputStream fis = new FileInputStream(directoryName + fileName);
-            ObjectInputStream ois = new ObjectInputStream(fis);
-            Game game = (Game) ois.readObject();
-            ois.close();
-            return game;
-        } catch (Exception e) {
+            return SaveFormat.read(Paths.get(BACKUPS_DIRECTORY, fileName));
+        } catch (IOException e) {
             throw new QwirkleException("The file doesn't exist");
         }
     }
+
+    /**
+     * Starts recording the turns of the game in a journal of the journals folder, replacing the file if it exists.
+     * The journal starts with a save of the game as it is now, then records each turn played or undone. As for a
+     * game read from a save, the turns played before cannot be undone any more.
+     *
+     * @param fileName  The name of the journal.
+     * @param syncEvery The number of turns after which the journal is forced to the disk, 0 to leave it to the system.
+     * @throws QwirkleException If the journal cannot be created, or if the number of turns is negative.
+     */
+    public void startJournal(String fileName, int syncEvery) {
+        stopJournal();
+        try {
+            Path directory = Paths.get(JOURNALS_DIRECTORY);
+            if (!Files.exists(directory)) {
+                Files.createDirectories(directory);
+            }
+            journal = Journal.create(this, directory.resolve(fileName), syncEvery);
+            turns.clear();
+        } catch (IOException e) {
+            throw new QwirkleException("The journal cannot be created: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops recording the turns of the game, forcing the journal to the disk, if there is one.
+     *
+     * @throws QwirkleException If the journal cannot be closed.
+     */
+    public void stopJournal() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            throw new QwirkleException("The journal cannot be closed: " + e.getMessage());
+        } finally {
+            journal = null;
+        }
+    }
+
+    /**
+     * Rebuilds a game from a journal of the journals folder by playing its turns again, then goes on recording the
+     * turns of the game in it. An entry left incomplete by a crash ends the journal and is overwritten.
+     *
+     * @param fileName  The name of the journal.
+     * @param syncEvery The number of turns after which the journal is forced to the disk, 0 to leave it to the system.
+     * @return The game as it was after the last turn recorded.
+     * @throws QwirkleException If the journal cannot be read, or if it does not start with a valid save.
+     */
+    public static Game getFromJournal(String fileName, int syncEvery) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(Paths.get(JOURNALS_DIRECTORY, fileName), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            Game game = Journal.replay(channel);
+            channel.truncate(channel.position());
+            game.journal = new Journal(channel, syncEvery);
+            return game;
+        } catch (IOException | QwirkleException e) {
+            closeQuietly(channel);
+            throw e instanceof QwirkleException qe ? qe : new QwirkleException("The journal doesn't exist");
+        }
+    }
+
+    /**
+     * Closes a channel after a failure, whose cause matters more than the closing.
+     *
+     * @param channel The channel, or null.
+     */
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // The first failure is the one reported.
+        }
+    }
 }
@@ -0,0 +1,276 @@
+package g61453.qwirkle.Model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Keeps millions of finished games in a folder, each game as a GameRecord of a few hundred bytes, numbered from 0 in
+ * the order they were added.
+ * The records are appended one after the other to segment files of a fixed size, 64 megabytes by default, a new
+ * segment being started when a record does not fit in the last one. An index file holds, for each game, the segment,
+ * the position and the length of its record and its CRC32C checksum, 16 bytes per game, after a header holding the
+ * number of games and the size of the segments.
+ * Every file is mapped in memory, the index by chunks of a million games, so that a game is found by its number in
+ * constant time without any system call, and a scan reads the records where they are mapped, in the order they were
+ * written, without copying them. The pages are written to the disk by the system, or by flush.
+ * Games are added by a single thread, while any number of threads may read the games already added. A game is
+ * published by writing the volatile number of games after its record and its entry, so that a reader which has read a
+ * number of games sees the records and the entries of all of them. The mapped segments and chunks of the index are
+ * kept in copy-on-write lists, added to only when a segment or a chunk is started, so that a reader never sees a list
+ * half grown by the writer.
+ */
+public final class GameArchive implements Closeable {
+    private static final int MAGIC = 0x51574B41;
+    private static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+    private static final int ENTRY_BYTES = 16;
+    private static final int INDEX_CHUNK_BYTES = ENTRY_BYTES << 20;
+    private static final String INDEX_FILE = "index";
+    private static final String SEGMENT_FILE = "segment-%05d";
+    private final Path directory;
+    private final int segmentBytes;
+    private final List<MappedByteBuffer> segments;
+    private final List<MappedByteBuffer> index;
+    private volatile long count;
+    private int segmentEnd;
+
+    /**
+     * Opens the archive of a folder with segments of 64 megabytes, creating it if it does not exist.
+     *
+     * @param directory The folder of the archive.
+     * @throws QwirkleException If the archive cannot be opened.
+     */
+    public GameArchive(Path directory) {
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Opens the archive of a folder, creating it if it does not exist. The header of the index is only written for a
+     * new index, whose bytes are all zeros; an index with another header is refused rather than overwritten.
+     *
+     * @param directory    The folder of the archive.
+     * @param segmentBytes The size of the segments of a new archive, in bytes, at most 1 gigabyte. An archive that
+     *                     exists keeps the size it was created with.
+     * @throws QwirkleException If the archive cannot be opened, if its index is not the index of an archive, or if
+     *                          the size of the segments is not strictly positive or is larger than 1 gigabyte.
+     */
+    public GameArchive(Path directory, int segmentBytes) {
+        if (segmentBytes <= 0 || segmentBytes > 1 << 30) {
+            throw new QwirkleException("The size of the segments must be between 1 byte and 1 gigabyte.");
+        }
+        this.directory = directory;
+        this.segments = new CopyOnWriteArrayList<>();
+        this.index = new CopyOnWriteArrayList<>();
+        try {
+            Files.createDirectories(directory);
+            MappedByteBuffer header = mapIndexChunk();
+            if (header.getInt(Long.BYTES) != MAGIC) {
+                if (header.getLong(0) != 0 || header.getLong(Long.BYTES) != 0) {
+                    throw new QwirkleException("The index of the archive is not the index of an archive.");
+                }
+                header.putInt(Long.BYTES + Integer.BYTES, segmentBytes);
+                header.putInt(Long.BYTES, MAGIC);
+            }
+            this.segmentBytes = header.getInt(Long.BYTES + Integer.BYTES);
+            this.count = header.getLong(0);
+            if (this.segmentBytes <= 0 || this.segmentBytes > 1 << 30 || count < 0) {
+                throw new QwirkleException("The header of the index of the archive is damaged.");
+            }
+            int lastSegment = 0;
+            if (count > 0) {
+                ByteBuffer entry = entry(count - 1);
+                lastSegment = entry.getInt(0);
+                segmentEnd = entry.getInt(Integer.BYTES) + entry.getInt(2 * Integer.BYTES);
+            }
+            for (int i = 0; i <= lastSegment; i++) {
+                segments.add(map(directory.resolve(String.format(SEGMENT_FILE, i)), this.segmentBytes));
+            }
+        } catch (IOException e) {
+            throw new QwirkleException("The archive cannot be opened: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds a game to the archive.
+     *
+     * @param game The game, played from its first turn.
+     * @return The number of the game in the archive.
+     * @throws QwirkleException If the game was not recorded from its first turn, or if it cannot be added.
+     */
+    public long append(Game game) {
+        ByteBuffer record = GameRecord.encode(game);
+        int length = record.remaining();
+        if (length > segmentBytes) {
+            throw new QwirkleException("The game is too long for the segments of the archive.");
+        }
+        try {
+            if (segmentEnd + length > segmentBytes) {
+                segments.add(map(directory.resolve(String.format(SEGMENT_FILE, segments.size())), segmentBytes));
+                segmentEnd = 0;
+            }
+            long id = count;
+            ByteBuffer entry = entry(id);
+            segments.get(segments.size() - 1).put(segmentEnd, record, 0, length);
+            CRC32C crc = new CRC32C();
+            crc.update(record);
+            entry.putInt(0, segments.size() - 1).putInt(Integer.BYTES, segmentEnd)
+                    .putInt(2 * Integer.BYTES, length).putInt(3 * Integer.BYTES, (int) crc.getValue());
+            segmentEnd += length;
+            index.get(0).putLong(0, id + 1);
+            count = id + 1;
+            return id;
+        } catch (IOException e) {
+            throw new QwirkleException("The game cannot be archived: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the number of games in the archive.
+     *
+     * @return The number of games.
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Gets the record of a game.
+     *
+     * @param id The number of the game.
+     * @return The record, reading the archive where it is mapped.
+     * @throws QwirkleException If there is no game of that number.
+     */
+    public GameRecord get(long id) {
+        GameRecord record = new GameRecord();
+        bind(record, id);
+        return record;
+    }
+
+    /**
+     * Shows every game of the archive to a visitor, in the order they were added. The same record is shown each
+     * game, so that the scan creates no object per game, and must not be kept after the call that receives it.
+     *
+     * @param visitor The visitor of the games.
+     */
+    public void scan(Consumer<GameRecord> visitor) {
+        scan(0, count, visitor);
+    }
+
+    /**
+     * Shows a range of games of the archive to a visitor, in the order they were added, so that several threads can
+     * scan parts of the archive.
+     *
+     * @param from    The number of the first game.
+     * @param to      The number following the last game.
+     * @param visitor The visitor of the games.
+     * @throws QwirkleException If the range is not within the games of the archive.
+     */
+    public void scan(long from, long to, Consumer<GameRecord> visitor) {
+        if (from < 0 || to > count || from > to) {
+            throw new QwirkleException("The games " + from + " to " + to + " are not in the archive.");
+        }
+        GameRecord record = new GameRecord();
+        for (long id = from; id < to; id++) {
+            bind(record, id);
+            visitor.accept(record);
+        }
+    }
+
+    /**
+     * Writes to the disk the games added since the last time.
+     *
+     * @throws QwirkleException If the files cannot be written.
+     */
+    public void flush() {
+        try {
+            if (!segments.isEmpty()) segments.get(segments.size() - 1).force();
+            for (MappedByteBuffer chunk : index) {
+                chunk.force();
+            }
+        } catch (RuntimeException e) {
+            throw new QwirkleException("The archive cannot be written: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the games added to the disk. The mapped files are released once the archive is no longer reachable.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Makes a record read the game of a given number.
+     *
+     * @param record The record.
+     * @param id     The number of the game.
+     * @throws QwirkleException If there is no game of that number.
+     */
+    private void bind(GameRecord record, long id) {
+        if (id < 0 || id >= count) {
+            throw new QwirkleException("There is no game " + id + " in the archive.");
+        }
+        ByteBuffer chunk = index.get((int) ((id + 1) * ENTRY_BYTES / INDEX_CHUNK_BYTES));
+        int at = (int) ((id + 1) * ENTRY_BYTES % INDEX_CHUNK_BYTES);
+        record.bind(segments.get(chunk.getInt(at)), chunk.getInt(at + Integer.BYTES),
+                chunk.getInt(at + 2 * Integer.BYTES), chunk.getInt(at + 3 * Integer.BYTES));
+    }
+
+    /**
+     * Gets the entry of a game in the index, mapping a new chunk of the index if needed. The first entry of the
+     * index is its header.
+     *
+     * @param id The number of the game.
+     * @return A buffer of 16 bytes holding the entry.
+     * @throws IOException If the index cannot be mapped.
+     */
+    private ByteBuffer entry(long id) throws IOException {
+        long position = (id + 1) * ENTRY_BYTES;
+        while (index.size() <= position / INDEX_CHUNK_BYTES) {
+            mapIndexChunk();
+        }
+        return index.get((int) (position / INDEX_CHUNK_BYTES)).slice((int) (position % INDEX_CHUNK_BYTES),
+                ENTRY_BYTES);
+    }
+
+    /**
+     * Maps the next chunk of the index.
+     *
+     * @return The chunk mapped.
+     * @throws IOException If the index cannot be mapped.
+     */
+    private MappedByteBuffer mapIndexChunk() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_WRITE,
+                    (long) index.size() * INDEX_CHUNK_BYTES, INDEX_CHUNK_BYTES);
+            index.add(chunk);
+            return chunk;
+        }
+    }
+
+    /**
+     * Maps a segment, creating it if it does not exist.
+     *
+     * @param file The path of the segment.
+     * @param size The size of the segment.
+     * @return The segment mapped.
+     * @throws IOException If the segment cannot be mapped.
+     */
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
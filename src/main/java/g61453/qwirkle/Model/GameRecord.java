@@ -0,0 +1,362 @@
+package g61453.qwirkle.Model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * A game recorded from its first turn as the list of its moves, as kept by a GameArchive, a game of 60 turns taking
+ * about 600 bytes. A record holds, in order: the number of players and the number of turns, the final score of each
+ * player, the hand each player was dealt, the name of each player, then each turn as the number of tiles placed, the
+ * row, the column and the code of each tile in the order they were placed and the codes of the tiles drawn. The
+ * number of tiles drawn is not written, since it follows from the hand of the player and the tiles left in the bag.
+ * The game is rebuilt by dealing the same hands and playing each turn again, the tiles drawn being taken from the
+ * bag rather than drawn at random.
+ * A record reads the bytes of its archive where they are, without copying them, so that a scan of the archive can
+ * read the players and the scores of millions of games without rebuilding any. A record seen during a scan is only
+ * valid during the call that receives it.
+ */
+public final class GameRecord {
+    private static final int PLAYERS = 0;
+    private static final int TURNS = 1;
+    private static final int SCORES = 3;
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+    private int checksum;
+
+    /**
+     * Constructs a record reading nothing yet.
+     */
+    GameRecord() {
+    }
+
+    /**
+     * Constructs a record reading the bytes of a buffer.
+     *
+     * @param buffer   The buffer holding the record.
+     * @param offset   The index of the first byte of the record.
+     * @param length   The number of bytes of the record.
+     * @param checksum The CRC32C checksum of the record, as written.
+     */
+    GameRecord(ByteBuffer buffer, int offset, int length, int checksum) {
+        bind(buffer, offset, length, checksum);
+    }
+
+    /**
+     * Makes the record read other bytes, so that a scan needs a single record.
+     *
+     * @param buffer   The buffer holding the record.
+     * @param offset   The index of the first byte of the record.
+     * @param length   The number of bytes of the record.
+     * @param checksum The CRC32C checksum of the record, as written.
+     */
+    void bind(ByteBuffer buffer, int offset, int length, int checksum) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Encodes a game played from its first turn.
+     *
+     * @param game The game.
+     * @return A buffer holding the record, ready to be read.
+     * @throws QwirkleException If the turns of the game do not go back to its first turn, as for a game read from a
+     *                          save or a journal, or if its grid is unbounded.
+     */
+    static ByteBuffer encode(Game game) {
+        List<Turn> turns = game.getTurns();
+        Grid grid = game.getGridModel();
+        int players = game.getPlayerCount();
+        int placed = 0;
+        for (Turn turn : turns) {
+            placed += turn.getTilesPlaced();
+        }
+        if (!grid.isBounded()) {
+            throw new QwirkleException("Only a game on a grid of 91 rows and 91 columns can be archived.");
+        }
+        if (placed != grid.getTileCount() || turns.size() > Short.MAX_VALUE
+                || !turns.isEmpty() && turns.get(0).getPlayerIndex() != 0) {
+            throw new QwirkleException("Only a game recorded from its first turn can be archived.");
+        }
+        Tile[][] hands = new Tile[players][];
+        for (Turn turn : turns) {
+            if (hands[turn.getPlayerIndex()] == null) hands[turn.getPlayerIndex()] = turn.getPreviousHand();
+        }
+        byte[][] names = new byte[players][];
+        int size = 1 + Short.BYTES + players * Short.BYTES + turns.size() + grid.getTileCount() * 4;
+        for (int i = 0; i < players; i++) {
+            if (hands[i] == null) hands[i] = game.getPlayer(i).getHandSnapshot();
+            names[i] = game.getPlayer(i).getName().getBytes(StandardCharsets.UTF_8);
+            size += 1 + hands[i].length + 1 + Math.min(names[i].length, 255);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put((byte) players).putShort((short) turns.size());
+        for (int i = 0; i < players; i++) {
+            buffer.putShort((short) game.getPlayerScore(i));
+        }
+        for (Tile[] hand : hands) {
+            buffer.put((byte) hand.length);
+            for (Tile tile : hand) {
+                buffer.put((byte) tile.code());
+            }
+        }
+        for (byte[] name : names) {
+            int nameLength = Math.min(name.length, 255);
+            buffer.put((byte) nameLength).put(name, 0, nameLength);
+        }
+        int tile = 0;
+        for (Turn turn : turns) {
+            buffer.put((byte) turn.getTilesPlaced());
+            for (int i = 0; i < turn.getTilesPlaced(); i++, tile++) {
+                long cell = grid.placedCell(tile);
+                int row = CellMap.rowOf(cell);
+                int col = CellMap.colOf(cell);
+                buffer.put((byte) row).put((byte) col).put((byte) grid.get(row, col).code());
+            }
+            for (Tile drawn : turn.getDrawn()) {
+                buffer.put((byte) drawn.code());
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Gets the number of players of the game.
+     *
+     * @return The number of players.
+     */
+    public int getPlayerCount() {
+        return buffer.get(offset + PLAYERS);
+    }
+
+    /**
+     * Gets the number of turns of the game, the passes included.
+     *
+     * @return The number of turns.
+     */
+    public int getTurnCount() {
+        return buffer.getShort(offset + TURNS);
+    }
+
+    /**
+     * Gets the final score of a player.
+     *
+     * @param index The index of the player.
+     * @return The score of the player at the end of the game.
+     */
+    public int getScore(int index) {
+        return buffer.getShort(offset + SCORES + index * Short.BYTES);
+    }
+
+    /**
+     * Gets the name of a player.
+     *
+     * @param index The index of the player.
+     * @return The name of the player.
+     */
+    public String getName(int index) {
+        int at = names();
+        for (int i = 0; i < index; i++) {
+            at += 1 + Byte.toUnsignedInt(buffer.get(at));
+        }
+        byte[] name = new byte[Byte.toUnsignedInt(buffer.get(at))];
+        buffer.get(at + 1, name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the number of bytes of the record.
+     *
+     * @return The length of the record.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Checks whether the bytes of the record are those that were written, by computing their checksum.
+     *
+     * @return True if the checksum matches, false if the record is damaged.
+     */
+    public boolean isIntact() {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue() == checksum;
+    }
+
+    /**
+     * Rebuilds the game, as it was at the end of its last turn, checking every turn against the rules.
+     *
+     * @return The game.
+     * @throws QwirkleException If the record is damaged.
+     */
+    public Game replay() {
+        try {
+            return rebuild();
+        } catch (QwirkleException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw damaged();
+        }
+    }
+
+    /**
+     * Rebuilds the game from the hands dealt and the turns of the record.
+     *
+     * @return The game.
+     * @throws QwirkleException          If a turn does not follow the rules or the scores do not match.
+     * @throws IndexOutOfBoundsException If the record is cut.
+     */
+    private Game rebuild() {
+        Game game = deal();
+        int at = turns();
+        for (int turn = 0; turn < getTurnCount(); turn++) {
+            at = replayTurn(game, at, true);
+        }
+        checkScores(game);
+        return game;
+    }
+
+    /**
+     * Deals the hands of the record, from a bag holding the other tiles.
+     *
+     * @return The game before its first turn.
+     * @throws QwirkleException          If the hands hold more copies of a tile than the game has.
+     * @throws IndexOutOfBoundsException If the record is cut.
+     */
+    Game deal() {
+        int players = getPlayerCount();
+        int[] left = new int[Tile.TYPES + 1];
+        Arrays.fill(left, 1, left.length, Bag.COPIES_PER_TILE);
+        Tile[][] hands = new Tile[players][];
+        int at = offset + SCORES + players * Short.BYTES;
+        for (int i = 0; i < players; i++) {
+            hands[i] = new Tile[buffer.get(at++)];
+            for (int j = 0; j < hands[i].length; j++) {
+                hands[i][j] = readTile(at++);
+                if (--left[hands[i][j].code()] < 0) throw damaged();
+            }
+        }
+        byte[] tiles = new byte[Tile.TYPES * Bag.COPIES_PER_TILE];
+        int size = 0;
+        for (int code = 1; code <= Tile.TYPES; code++) {
+            for (int copy = 0; copy < left[code]; copy++) {
+                tiles[size++] = (byte) code;
+            }
+        }
+        Bag bag = new Bag(tiles, size, 0);
+        Player[] seats = new Player[players];
+        for (int i = 0; i < players; i++) {
+            seats[i] = new Player(getName(i), bag, hands[i], 0);
+        }
+        return new Game(seats, bag, new Grid(), 0, 0);
+    }
+
+    /**
+     * Checks that the scores of a game rebuilt up to its last turn are the final scores of the record.
+     *
+     * @param game The game rebuilt.
+     * @throws QwirkleException If a score does not match.
+     */
+    void checkScores(Game game) {
+        for (int i = 0; i < getPlayerCount(); i++) {
+            if (game.getPlayerScore(i) != getScore(i)) throw damaged();
+        }
+    }
+
+    /**
+     * Plays a turn of the record again.
+     *
+     * @param game    The game rebuilt so far.
+     * @param at      The index of the first byte of the turn.
+     * @param checked True to check the turn against the rules, false to place its tiles as they are, for a record
+     *                whose checksum matches.
+     * @return The index of the first byte of the next turn.
+     * @throws QwirkleException          If the turn does not follow the rules or does not match the game.
+     * @throws IndexOutOfBoundsException If the record is cut.
+     */
+    int replayTurn(Game game, int at, boolean checked) {
+        int placed = buffer.get(at++);
+        if (placed < 0 || placed > Player.HAND_SIZE) throw damaged();
+        if (placed == 0) {
+            game.pass();
+            return at;
+        }
+        int[] rows = new int[placed];
+        int[] cols = new int[placed];
+        Tile[] tiles = new Tile[placed];
+        for (int i = 0; i < placed; i++) {
+            rows[i] = Byte.toUnsignedInt(buffer.get(at++));
+            cols[i] = Byte.toUnsignedInt(buffer.get(at++));
+            tiles[i] = readTile(at++);
+        }
+        int handSize = game.getCurrentPlayerHand().size() - placed;
+        Tile[] drawn = new Tile[Math.min(Player.HAND_SIZE - handSize, game.getBagSize())];
+        for (int i = 0; i < drawn.length; i++) {
+            drawn[i] = readTile(at++);
+        }
+        if (!checked) {
+            TileAtPosition[] line = new TileAtPosition[placed];
+            for (int i = 0; i < placed; i++) {
+                line[i] = new TileAtPosition(rows[i], cols[i], tiles[i]);
+            }
+            game.applyUnchecked(line, drawn);
+            return at;
+        }
+        Move move = game.toMove(rows, cols, tiles);
+        if (move == null) throw damaged();
+        game.apply(move, drawn);
+        return at;
+    }
+
+    /**
+     * Gets the index of the name of the first player.
+     *
+     * @return The index of the first byte of the names.
+     */
+    private int names() {
+        int at = offset + SCORES + getPlayerCount() * Short.BYTES;
+        for (int i = 0; i < getPlayerCount(); i++) {
+            at += 1 + buffer.get(at);
+        }
+        return at;
+    }
+
+    /**
+     * Gets the index of the first turn.
+     *
+     * @return The index of the first byte of the turns.
+     */
+    int turns() {
+        int at = names();
+        for (int i = 0; i < getPlayerCount(); i++) {
+            at += 1 + Byte.toUnsignedInt(buffer.get(at));
+        }
+        return at;
+    }
+
+    /**
+     * Reads the code of a tile.
+     *
+     * @param at The index of the code.
+     * @return The tile.
+     * @throws QwirkleException If the code is not the one of a tile.
+     */
+    private Tile readTile(int at) {
+        int code = buffer.get(at);
+        if (code < 1 || code > Tile.TYPES) throw damaged();
+        return Tile.fromCode(code);
+    }
+
+    /**
+     * Creates the exception thrown for a damaged record.
+     *
+     * @return The exception.
+     */
+    static QwirkleException damaged() {
+        return new QwirkleException("The archived game is damaged.");
+    }
+}
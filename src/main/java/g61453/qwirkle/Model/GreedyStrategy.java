@@ -0,0 +1,172 @@
+package g61453.qwirkle.Model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays the legal move scoring the most, and passes when there is none.
+ * When the frontier of the grid holds many anchors, the rows and the columns are split into parts listed in parallel
+ * on a fork/join pool, each part by a move generator of its own. The search stops once the time budget of a move is
+ * spent, the best move found so far being played, so that the strategy always answers in time; the first line holding
+ * an anchor is always searched, so that a move is found whenever that line has one.
+ * Among moves scoring the same, the one whose cells, then tiles, come first in the order of the rows and the columns is
+ * played, so that the choice depends neither on the order in which the moves are listed nor on how the lines are split
+ * between the threads.
+ */
+public class GreedyStrategy implements Strategy {
+    private static final int PARALLEL_ANCHORS = 64;
+    private final ForkJoinPool pool;
+    private final long budgetNanos;
+    private final MoveGenerator[] generators;
+
+    /**
+     * Constructs a greedy strategy searching on the common fork/join pool.
+     *
+     * @param budgetNanos The time budget of a move, in nanoseconds.
+     * @throws QwirkleException If the budget is not strictly positive.
+     */
+    public GreedyStrategy(long budgetNanos) {
+        this(budgetNanos, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a greedy strategy.
+     *
+     * @param budgetNanos The time budget of a move, in nanoseconds.
+     * @param pool        The pool on which the parts of the grid are searched.
+     * @throws QwirkleException If the budget is not strictly positive.
+     */
+    public GreedyStrategy(long budgetNanos, ForkJoinPool pool) {
+        if (budgetNanos <= 0) {
+            throw new QwirkleException("The time budget of a move must be strictly positive.");
+        }
+        this.pool = pool;
+        this.budgetNanos = budgetNanos;
+        this.generators = new MoveGenerator[Math.max(1, pool.getParallelism())];
+        for (int i = 0; i < generators.length; i++) {
+            generators[i] = new MoveGenerator();
+        }
+    }
+
+    /**
+     * Chooses the legal move of the current player scoring the most, among those found within the time budget.
+     *
+     * @param game The game, which is not over.
+     * @return The best move found, or null if none was found.
+     */
+    @Override
+    public Move choose(Game game) {
+        return choose(game, System.nanoTime() + budgetNanos);
+    }
+
+    /**
+     * Chooses the legal move of the current player scoring the most, among those found before a deadline.
+     *
+     * @param game     The game, which is not over.
+     * @param deadline The value of System.nanoTime after which the search stops.
+     * @return The best move found, or null if none was found.
+     */
+    @Override
+    public Move choose(Game game, long deadline) {
+        GridView grid = game.getGrid();
+        List<Tile> hand = game.getCurrentPlayerHand();
+        if (generators.length == 1 || grid.getGrid().getFrontier().size() < PARALLEL_ANCHORS) {
+            return best(generators[0].generate(grid, hand, 0, 1, deadline));
+        }
+        Tile[] tiles = hand.toArray(new Tile[0]);
+        return pool.invoke(new Search(grid, tiles, 0, generators.length, deadline));
+    }
+
+    /**
+     * Picks the move scoring the most, the first one in the order of the moves among those scoring the same.
+     *
+     * @param moves The moves.
+     * @return The best move, or null if there is none.
+     */
+    private static Move best(List<Move> moves) {
+        Move best = null;
+        for (Move move : moves) {
+            best = better(best, move);
+        }
+        return best;
+    }
+
+    /**
+     * Picks the move scoring the most of two, the first one in the order of the moves if they score the same.
+     *
+     * @param first  A move, or null.
+     * @param second Another move, or null.
+     * @return The better move, or null if both are null.
+     */
+    private static Move better(Move first, Move second) {
+        if (first == null) return second;
+        if (second == null) return first;
+        if (second.getScore() != first.getScore()) return second.getScore() > first.getScore() ? second : first;
+        return precedes(second, first) ? second : first;
+    }
+
+    /**
+     * Tells whether a move comes before another in a fixed order: the one placing fewer tiles first, then the one
+     * whose tiles, in the order in which they are played, are on a lower row, then on a lower column, then the one
+     * playing a tile of lower code. Two moves placing the same tiles in the same cells in the same order are not
+     * ordered, which does not matter since they are the same move.
+     *
+     * @param first  A move.
+     * @param second Another move.
+     * @return True if the first move comes strictly before the second, false otherwise.
+     */
+    private static boolean precedes(Move first, Move second) {
+        if (first.size() != second.size()) return first.size() < second.size();
+        for (int i = 0; i < first.size(); i++) {
+            if (first.getRow(i) != second.getRow(i)) return first.getRow(i) < second.getRow(i);
+            if (first.getCol(i) != second.getCol(i)) return first.getCol(i) < second.getCol(i);
+            int code = first.getTile(i).code();
+            int otherCode = second.getTile(i).code();
+            if (code != otherCode) return code < otherCode;
+        }
+        return false;
+    }
+
+    /**
+     * Searches the best move along a range of parts of the lines of the grid, splitting the range in two until a
+     * single part is left.
+     */
+    private class Search extends RecursiveTask<Move> {
+        private final GridView grid;
+        private final Tile[] hand;
+        private final int from;
+        private final int to;
+        private final long deadline;
+
+        /**
+         * Constructs a search.
+         *
+         * @param grid     The grid on which the tiles would be played.
+         * @param hand     The tiles of the hand of the player.
+         * @param from     The first part searched.
+         * @param to       The part following the last one searched.
+         * @param deadline The value of System.nanoTime after which the search stops.
+         */
+        Search(GridView grid, Tile[] hand, int from, int to, long deadline) {
+            this.grid = grid;
+            this.hand = hand;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected Move compute() {
+            if (to - from == 1) {
+                return best(generators[from].generate(grid, Arrays.asList(hand), from, generators.length, deadline));
+            }
+            int middle = (from + to) >>> 1;
+            Search right = new Search(grid, hand, middle, to, deadline);
+            right.fork();
+            Move left = new Search(grid, hand, from, middle, deadline).compute();
+            return better(left, right.join());
+        }
+    }
+}
@@ -1,25 +1,123 @@
 package g61453.qwirkle.Model;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.Arrays;
 
 /**
  * Represents the game grid for the Qwirkle game.
+ * The cells are stored in a board, each cell holding the code of its tile or Tile.EMPTY.
+ * The validation of a move works on tile codes kept in scratch buffers reused from one move to the next, and on
+ * bit masks of directions, so that probing a move does not allocate.
+ * A move is first checked and scored against the index of the runs of the grid, in constant time per tile. A move
+ * refused by the index is checked again cell by cell, which finds the precise error.
+ * The evaluate methods check a move without placing it and return its score, or a negative code identifying the
+ * MoveError that refuses it, without throwing any exception.
+ * The frontier of the grid, its empty cells touching a tile with the masks of the tiles fitting them, is updated
+ * around each tile placed.
+ * Each tile placed is recorded with the runs it joined and the previous bounding box, so that the last tiles placed
+ * can be removed again, restoring the grid exactly as it was.
+ * The Zobrist hash of the tiles of the grid is updated with each tile placed or removed.
  */
 public class Grid implements Serializable {
-    private final Tile[][] tiles;
+    private final Board board;
+    private final RunIndex runs;
+    private final Frontier frontier;
     private boolean isEmpty;
+    private int minRow;
+    private int minCol;
+    private int maxRow;
+    private int maxCol;
+    private long[] history;
+    private int tileCount;
+    private long hash;
+    private transient int[] mainLine;
+    private transient int mainLength;
+    private transient int[] crossLine;
+    private transient long[] mergedCells;
+    private transient int mergedCount;
     private static final int GRID_ROW_SIZE = 91;
     private static final int GRID_COL_SIZE = 91;
+    private static final int FIRST_ROW = 45;
+    private static final int FIRST_COL = 45;
     private static final int MAX_TILES_PER_LINE = 6;
+    private static final int MAX_CHUNK_LENGTH = MAX_TILES_PER_LINE + 1;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int REFUSED = Integer.MIN_VALUE;
+    private static final int PLAYING_BY_COLOR = 1;
+    private static final int PLAYING_BY_SHAPE = 0;
+    private static final int HISTORY_STRIDE = 5;
 
     /**
-     * Constructs a new Grid object.
+     * Constructs a new Grid object of 91 rows and 91 columns.
      */
     Grid() {
-        tiles = new Tile[GRID_COL_SIZE][GRID_ROW_SIZE];
+        this(new PackedBoard(GRID_ROW_SIZE, GRID_COL_SIZE));
+    }
+
+    /**
+     * Constructs a new Grid object storing its cells in the given board.
+     *
+     * @param board The board holding the cells of the grid.
+     */
+    private Grid(Board board) {
+        this.board = board;
+        this.runs = new RunIndex();
+        this.frontier = new Frontier(board, runs);
+        this.history = new long[HISTORY_STRIDE * MAX_TILES_PER_LINE * 4];
         isEmpty = true;
+        minRow = Integer.MAX_VALUE;
+        minCol = Integer.MAX_VALUE;
+        maxRow = Integer.MIN_VALUE;
+        maxCol = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Constructs a copy of a grid, with copies of its board, of its index of the runs and of its frontier.
+     *
+     * @param other The grid to copy.
+     */
+    private Grid(Grid other) {
+        this.board = other.board.copy();
+        this.runs = other.runs.copy();
+        this.frontier = other.frontier.copy(board, runs);
+        this.history = other.history.clone();
+        this.isEmpty = other.isEmpty;
+        this.minRow = other.minRow;
+        this.minCol = other.minCol;
+        this.maxRow = other.maxRow;
+        this.maxCol = other.maxCol;
+        this.tileCount = other.tileCount;
+        this.hash = other.hash;
+    }
+
+    /**
+     * Creates a copy of the grid, holding the same tiles and able to remove them in the same order.
+     *
+     * @return The copy of the grid.
+     */
+    Grid copy() {
+        return new Grid(this);
+    }
+
+    /**
+     * Creates a grid without bounds, whose memory grows with the tiles placed rather than with its area.
+     * The first tiles are still placed from the cell (45, 45), but any coordinates can be reached afterwards.
+     * Such a grid is only meant for the library: the games keep the grid of 91 rows and 91 columns, whose
+     * coordinates fit in a byte.
+     *
+     * @return An empty unbounded grid.
+     */
+    static Grid unbounded() {
+        return new Grid(new SparseBoard());
+    }
+
+    /**
+     * Checks whether the grid has 91 rows and 91 columns, so that its coordinates can be written in a byte each.
+     *
+     * @return True if the grid is bounded, false if it was created by unbounded.
+     */
+    boolean isBounded() {
+        return board instanceof PackedBoard;
     }
 
     /**
@@ -31,23 +129,36 @@ public class Grid implements Serializable {
      * @throws QwirkleException If the method is called with tiles already present on the grid.
      */
     public int firstAdd(Direction direction, Tile... line) {
-        int score = 0;
-        if (!isEmpty)
-            throw new QwirkleException("Utilize this method strictly during the very first turn of the game!");
-        ArrayList<Tile> copyLine = new ArrayList<>(Arrays.asList(line));
-        checkLineValidity(copyLine);
-        score += getScore(copyLine);
-        int col = 45;
-        int row = 45;
+        int score = evaluateFirst(line);
+        throwIfError(score);
+        int col = FIRST_COL;
+        int row = FIRST_ROW;
         isEmpty = false;
         for (Tile tile : line) {
-            tiles[col][row] = tile;
+            setCell(row, col, tile);
             col += direction.getDeltaCol();
             row += direction.getDeltaRow();
         }
         return score;
     }
 
+    /**
+     * Evaluates the first move on the grid without placing its tiles.
+     *
+     * @param line The tiles of the first move.
+     * @return The score of the move, or the code of the MoveError refusing it.
+     */
+    public int evaluateFirst(Tile... line) {
+        if (!isEmpty) return MoveError.FIRST_TURN_ONLY.toResult();
+        startMainLine(line.length);
+        for (Tile tile : line) {
+            appendToMainLine(tile.code());
+        }
+        int result = checkLineValidity(mainLine, mainLength);
+        if (MoveError.isError(result)) return result;
+        return getScore(mainLength);
+    }
+
     /**
      * Adds a tile to a specified position on the grid.
      *
@@ -58,28 +169,46 @@ public class Grid implements Serializable {
      * @throws QwirkleException If various conditions for adding the tile are not met.
      */
     public int add(int row, int col, Tile tile) {
-        int score = 0;
-        if (isEmpty) throw new QwirkleException("Method not to be used during the initial turn of the game!");
+        int score = evaluate(row, col, tile);
+        throwIfError(score);
+        setCell(row, col, tile);
+        return score;
+    }
 
-        checkCellValidity(row, col);
-        ArrayList<Direction> directions = getPossibleDirections(row, col);
+    /**
+     * Evaluates the placement of a tile at a specified position without placing it.
+     *
+     * @param row  The row where the tile would be added.
+     * @param col  The column where the tile would be added.
+     * @param tile The tile to be evaluated.
+     * @return The score of the move, or the code of the MoveError refusing it.
+     */
+    public int evaluate(int row, int col, Tile tile) {
+        if (isEmpty) return MoveError.NOT_FIRST_TURN.toResult();
+        int score = scoreTile(row, col, tile.code());
+        return score == REFUSED ? checkTile(row, col, tile) : score;
+    }
 
-        if (directions.isEmpty()) throw new QwirkleException("Prohibited action: Tile must connect to existing line.");
+    /**
+     * Checks cell by cell the placement of a single tile to find why it is refused.
+     *
+     * @param row  The row where the tile should be added.
+     * @param col  The column where the tile should be added.
+     * @param tile The tile to be added.
+     * @return The score obtained for the move, or the code of the MoveError refusing it.
+     */
+    private int checkTile(int row, int col, Tile tile) {
+        int result = checkCellValidity(row, col);
+        if (MoveError.isError(result)) return result;
+        int directions = getPossibleDirections(row, col);
 
-        for (Direction direction : directions) {
-            ArrayList<Tile> chunk1 = getChunkOfLine(row, col, direction);
-            chunk1.add(tile);
-            if (directions.contains(direction.opposite())) {
-                ArrayList<Tile> chunk2 = getChunkOfLine(row, col, direction.opposite());
-                chunk1.addAll(chunk2);
-                directions.remove(direction.opposite());
-            }
-            checkLineValidity(chunk1);
-            score += getScore(chunk1);
-        }
+        if (directions == 0) return MoveError.TILE_NOT_CONNECTED.toResult();
 
-        tiles[col][row] = tile;
-        return score;
+        int vertical = checkLineThrough(row, col, tile.code(), directions, Direction.UP);
+        if (MoveError.isError(vertical)) return vertical;
+        int horizontal = checkLineThrough(row, col, tile.code(), directions, Direction.LEFT);
+        if (MoveError.isError(horizontal)) return horizontal;
+        return vertical + horizontal;
     }
 
     /**
@@ -93,30 +222,62 @@ public class Grid implements Serializable {
      * @throws QwirkleException If various conditions for adding the tiles are not met.
      */
     public int add(int row, int col, Direction direction, Tile... line) {
-        int score = 0;
-        if (isEmpty) throw new QwirkleException("Method not to be used during the initial turn of the game!");
-        ArrayList<Tile> copyLine = new ArrayList<>(10);
+        int score = evaluate(row, col, direction, line);
+        throwIfError(score);
+
         for (int i = 0; i < line.length; i++) {
-            Tile currTile = line[i];
-            copyLine.add(currTile);
             int rowPlusOffset = row + i * direction.getDeltaRow();
             int colPlusOffset = col + i * direction.getDeltaCol();
-            checkCellValidity(rowPlusOffset, colPlusOffset);
-            ArrayList<Direction> possibleDirections = getPossibleDirections(rowPlusOffset, colPlusOffset);
-            if (i == 0 && possibleDirections.isEmpty()) {
-                throw new QwirkleException("Prohibited action: First tile must connect to existing line.");
-            }
-            score += completeAndCheckChunks(rowPlusOffset, colPlusOffset, copyLine, currTile, possibleDirections, direction);
+            setCell(rowPlusOffset, colPlusOffset, line[i]);
         }
-        checkLineValidity(copyLine);
-        score += getScore(copyLine);
+        return score;
+    }
+
+    /**
+     * Evaluates the placement of multiple tiles in a specified direction without placing them.
+     *
+     * @param row       The starting row.
+     * @param col       The starting column.
+     * @param direction The direction of the tiles.
+     * @param line      The tiles to be evaluated.
+     * @return The score of the move, or the code of the MoveError refusing it.
+     */
+    public int evaluate(int row, int col, Direction direction, Tile... line) {
+        if (isEmpty) return MoveError.NOT_FIRST_TURN.toResult();
+        int score = scoreLine(row, col, direction, line);
+        return score == REFUSED ? checkLine(row, col, direction, line) : score;
+    }
 
+    /**
+     * Checks cell by cell the placement of a line of tiles to find why it is refused.
+     *
+     * @param row       The starting row.
+     * @param col       The starting column.
+     * @param direction The direction of the tiles.
+     * @param line      The tiles to be added.
+     * @return The score obtained for the move, or the code of the MoveError refusing it.
+     */
+    private int checkLine(int row, int col, Direction direction, Tile... line) {
+        int score = 0;
+        startMainLine(line.length);
         for (int i = 0; i < line.length; i++) {
+            int currTile = line[i].code();
+            appendToMainLine(currTile);
             int rowPlusOffset = row + i * direction.getDeltaRow();
             int colPlusOffset = col + i * direction.getDeltaCol();
-            tiles[colPlusOffset][rowPlusOffset] = line[i];
+            int result = checkCellValidity(rowPlusOffset, colPlusOffset);
+            if (MoveError.isError(result)) return result;
+            int possibleDirections = getPossibleDirections(rowPlusOffset, colPlusOffset);
+            if (i == 0 && possibleDirections == 0) {
+                return MoveError.FIRST_TILE_NOT_CONNECTED.toResult();
+            }
+            result = completeAndCheckChunks(rowPlusOffset, colPlusOffset, currTile, possibleDirections, direction);
+            if (MoveError.isError(result)) return result;
+            score += result;
         }
-        return score;
+        int result = checkLineValidity(mainLine, mainLength);
+        if (MoveError.isError(result)) return result;
+        return score + getScore(mainLength);
     }
 
     /**
@@ -127,42 +288,71 @@ public class Grid implements Serializable {
      * @throws QwirkleException If various conditions for adding the tiles are not met.
      */
     public int add(TileAtPosition... line) {
-        int score = 0;
-        if (isEmpty) throw new QwirkleException("Method not to be used during the initial turn of the game!");
+        int score = evaluate(line);
+        throwIfError(score);
+
+        for (TileAtPosition tileAtPos : line) {
+            setCell(tileAtPos.row(), tileAtPos.col(), tileAtPos.tile());
+        }
+        return score;
+    }
+
+    /**
+     * Evaluates the placement of multiple tiles at specified positions without placing them.
+     *
+     * @param line The array of TileAtPosition objects representing tiles and their positions.
+     * @return The score of the move, or the code of the MoveError refusing it.
+     */
+    public int evaluate(TileAtPosition... line) {
+        if (isEmpty) return MoveError.NOT_FIRST_TURN.toResult();
 
         if (line.length == 1) {
             TileAtPosition tileAtPos = line[0];
-            return add(tileAtPos.row(), tileAtPos.col(), tileAtPos.tile());
+            return evaluate(tileAtPos.row(), tileAtPos.col(), tileAtPos.tile());
         }
 
-        Direction direction = checkIfTilesAreAlignInSameDirection(line);
-        ArrayList<Tile> copyLine = new ArrayList<>(10);
+        int score = scoreTilesAtPositions(line);
+        return score == REFUSED ? checkTilesAtPositions(line) : score;
+    }
+
+    /**
+     * Checks cell by cell the placement of tiles at several positions to find why it is refused.
+     *
+     * @param line The array of at least two TileAtPosition objects representing tiles and their positions.
+     * @return The score obtained for the move, or the code of the MoveError refusing it.
+     */
+    private int checkTilesAtPositions(TileAtPosition... line) {
+        int score = 0;
+        int alignment = checkIfTilesAreAlignInSameDirection(line);
+        if (MoveError.isError(alignment)) return alignment;
+        Direction direction = DIRECTIONS[alignment];
+        startMainLine(line.length);
 
         for (int i = 0; i < line.length; i++) {
             TileAtPosition tileAtPos = line[i];
-            ArrayList<Direction> possibleDirections = getPossibleDirections(tileAtPos.row(), tileAtPos.col());
+            int possibleDirections = getPossibleDirections(tileAtPos.row(), tileAtPos.col());
 
-            copyLine.add(tileAtPos.tile());
-            checkCellValidity(line[i].row(), line[i].col());
+            int currTile = tileAtPos.tile().code();
+            appendToMainLine(currTile);
+            int result = checkCellValidity(line[i].row(), line[i].col());
+            if (MoveError.isError(result)) return result;
 
-            if (i == 0 && possibleDirections.isEmpty()) {
-                throw new QwirkleException("Prohibited action: First tile must connect to existing line.");
+            if (i == 0 && possibleDirections == 0) {
+                return MoveError.FIRST_TILE_NOT_CONNECTED.toResult();
             }
 
-            if (i > 0 && possibleDirections.isEmpty() && !isAdjacentToPrevTile(tileAtPos, line[i - 1], direction)) {
-                throw new QwirkleException("Prohibited action: Tiles must connect to existing line or tile of your hand.");
+            if (i > 0 && possibleDirections == 0 && !isAdjacentToPrevTile(tileAtPos, line[i - 1], direction)) {
+                return MoveError.TILES_NOT_CONNECTED.toResult();
             }
 
-            score += completeAndCheckChunks(tileAtPos.row(), tileAtPos.col(), copyLine, tileAtPos.tile(), possibleDirections, direction);
+            result = completeAndCheckChunks(tileAtPos.row(), tileAtPos.col(), currTile, possibleDirections, direction);
+            if (MoveError.isError(result)) return result;
+            score += result;
         }
 
-        checkLineValidity(copyLine);
-        score += getScore(copyLine);
-
-        for (TileAtPosition tileAtPos : line) {
-            tiles[tileAtPos.col()][tileAtPos.row()] = tileAtPos.tile();
-        }
-        return score;
+        int result = checkLineValidity(mainLine, mainLength);
+        if (MoveError.isError(result)) return result;
+        return score + getScore(mainLength);
     }
 
     /**
@@ -173,7 +363,7 @@ public class Grid implements Serializable {
      * @return The tile at the specified position or Null if there is nothing.
      */
     public Tile get(int row, int col) {
-        return isCellExists(row, col) ? tiles[col][row] : null;
+        return isCellExists(row, col) ? Tile.fromCode(board.get(row, col)) : null;
     }
 
     /**
@@ -186,41 +376,536 @@ public class Grid implements Serializable {
     }
 
     /**
-     * Completes and checks chunks of tiles in different directions from a given position, and updates the copyLine accordingly.
+     * Returns the smallest row holding a tile, the grid must not be empty.
+     *
+     * @return The smallest occupied row.
+     */
+    public int getMinRow() {
+        return minRow;
+    }
+
+    /**
+     * Returns the smallest column holding a tile, the grid must not be empty.
+     *
+     * @return The smallest occupied column.
+     */
+    public int getMinCol() {
+        return minCol;
+    }
+
+    /**
+     * Returns the largest row holding a tile, the grid must not be empty.
+     *
+     * @return The largest occupied row.
+     */
+    public int getMaxRow() {
+        return maxRow;
+    }
+
+    /**
+     * Returns the largest column holding a tile, the grid must not be empty.
+     *
+     * @return The largest occupied column.
+     */
+    public int getMaxCol() {
+        return maxCol;
+    }
+
+    /**
+     * Gets the number of tiles placed on the grid.
+     *
+     * @return The number of occupied cells.
+     */
+    int getTileCount() {
+        return tileCount;
+    }
+
+    /**
+     * Gets the Zobrist hash of the tiles of the grid and of their cells. Two grids holding the same tiles in the same
+     * cells have the same hash, whatever the order in which the tiles were placed.
+     *
+     * @return The hash of the grid, 0 for an empty grid.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Removes the last tiles placed on the grid, most recent first, restoring the cells, the runs, the frontier and
+     * the bounding box as they were before these tiles were placed.
+     *
+     * @param count The number of tiles to remove, at most the number of tiles placed.
+     */
+    void removeLastTiles(int count) {
+        for (int i = 0; i < count; i++) {
+            int at = --tileCount * HISTORY_STRIDE;
+            int row = CellMap.rowOf(history[at]);
+            int col = CellMap.colOf(history[at]);
+            int up = (int) (history[at + 1] >>> 32);
+            int down = (int) history[at + 1];
+            int left = (int) (history[at + 2] >>> 32);
+            int right = (int) history[at + 2];
+            hash ^= Zobrist.cell(row, col, board.get(row, col));
+            board.set(row, col, Tile.EMPTY);
+            runs.remove(row, col, up, down, left, right);
+            frontier.remove(row, col, RunIndex.length(up), RunIndex.length(down), RunIndex.length(left),
+                    RunIndex.length(right));
+            minRow = CellMap.rowOf(history[at + 3]);
+            minCol = CellMap.colOf(history[at + 3]);
+            maxRow = CellMap.rowOf(history[at + 4]);
+            maxCol = CellMap.colOf(history[at + 4]);
+        }
+        isEmpty = tileCount == 0;
+    }
+
+    /**
+     * Gets the cell of a tile of the grid, in the order the tiles were placed.
+     *
+     * @param index The index of the tile, between 0 and the number of tiles excluded.
+     * @return The key of the cell, as made by CellMap.key.
+     */
+    long placedCell(int index) {
+        return history[index * HISTORY_STRIDE];
+    }
+
+    /**
+     * Places a tile without checking it, to rebuild a grid whose moves were checked when they were played.
+     * The tiles must be placed again in the order they were first placed.
+     *
+     * @param row  The row of the cell.
+     * @param col  The column of the cell.
+     * @param tile The tile to place.
+     */
+    void restoreTile(int row, int col, Tile tile) {
+        isEmpty = false;
+        setCell(row, col, tile);
+    }
+
+    /**
+     * Places the tiles of a move without checking them, then scores the lines they form, to replay a move known to
+     * follow the rules, such as a move of an archived game whose checksum matches. The lines are measured on the grid
+     * once the tiles are placed, so that no run has to be checked.
+     *
+     * @param line The tiles and their positions, in the order they were placed.
+     * @return The score obtained for the move.
+     */
+    int addUnchecked(TileAtPosition... line) {
+        boolean first = isEmpty;
+        isEmpty = false;
+        for (TileAtPosition tileAtPos : line) {
+            setCell(tileAtPos.row(), tileAtPos.col(), tileAtPos.tile());
+        }
+        int row = line[0].row();
+        int col = line[0].col();
+        if (line.length == 1) {
+            if (first) return getScore(1);
+            return scoreLineThrough(row, col, Direction.UP) + scoreLineThrough(row, col, Direction.LEFT);
+        }
+        Direction direction = row == line[1].row() ? Direction.LEFT : Direction.UP;
+        Direction crossDirection = isVertical(direction) ? Direction.LEFT : Direction.UP;
+        int score = getScore(lengthThrough(row, col, direction));
+        for (TileAtPosition tileAtPos : line) {
+            score += scoreLineThrough(tileAtPos.row(), tileAtPos.col(), crossDirection);
+        }
+        return score;
+    }
+
+    /**
+     * Gets the frontier of the grid, the empty cells touching a tile with the masks of the tiles fitting them.
+     *
+     * @return The frontier of the grid.
+     */
+    Frontier getFrontier() {
+        return frontier;
+    }
+
+    /**
+     * Checks whether a tile can be put in a cell, which must exist and be empty.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return True if the cell is free, false otherwise.
+     */
+    boolean isFree(int row, int col) {
+        return isCellExists(row, col) && !isCellOccupied(row, col);
+    }
+
+    /**
+     * Gets the run of tiles ending next to an empty cell in a given direction.
+     *
+     * @param row       The row of the cell.
+     * @param col       The column of the cell.
+     * @param direction The direction in which the run is looked for.
+     * @return The description of the run, as kept by RunIndex, or 0 if the neighbouring cell is empty.
+     */
+    int runNextTo(int row, int col, Direction direction) {
+        return runs.runNextTo(row, col, direction);
+    }
+
+    /**
+     * Scores the placement of a single tile, checked against the mask of the tiles fitting its cell in the frontier.
+     *
+     * @param row  The row where the tile should be added.
+     * @param col  The column where the tile should be added.
+     * @param tile The code of the tile.
+     * @return The score obtained for the move, or REFUSED if the move is not allowed.
+     */
+    private int scoreTile(int row, int col, int tile) {
+        if ((frontier.fittingTiles(row, col) & (1L << (tile - 1))) == 0) return REFUSED;
+        return scoreCrossLine(row, col, tile, Direction.UP) + scoreCrossLine(row, col, tile, Direction.LEFT);
+    }
+
+    /**
+     * Scores the placement of a line of tiles in consecutive cells against the index of the runs.
+     *
+     * @param row       The starting row.
+     * @param col       The starting column.
+     * @param direction The direction of the tiles.
+     * @param line      The tiles to be added.
+     * @return The score obtained for the move, or REFUSED if the move is not allowed.
+     */
+    private int scoreLine(int row, int col, Direction direction, Tile... line) {
+        if (line.length == 0) return REFUSED;
+        Direction crossDirection = isVertical(direction) ? Direction.LEFT : Direction.UP;
+        int score = 0;
+        int mainRun = runs.runNextTo(row, col, direction.opposite());
+        int mainLength = RunIndex.length(mainRun);
+        int mainColors = RunIndex.colors(mainRun);
+        int mainShapes = RunIndex.shapes(mainRun);
+        for (int i = 0; i < line.length; i++) {
+            int rowPlusOffset = row + i * direction.getDeltaRow();
+            int colPlusOffset = col + i * direction.getDeltaCol();
+            if (!isCellExists(rowPlusOffset, colPlusOffset) || isCellOccupied(rowPlusOffset, colPlusOffset)) {
+                return REFUSED;
+            }
+            int tile = line[i].code();
+            int crossScore = scoreCrossLine(rowPlusOffset, colPlusOffset, tile, crossDirection);
+            if (crossScore == REFUSED) return REFUSED;
+            if (i == 0 && crossScore == 0 && mainLength == 0
+                    && (line.length > 1 || runs.runNextTo(row, col, direction) == 0)) {
+                return REFUSED;
+            }
+            score += crossScore;
+            int tileRun = RunIndex.of(tile);
+            mainLength++;
+            mainColors |= RunIndex.colors(tileRun);
+            mainShapes |= RunIndex.shapes(tileRun);
+        }
+        int lastRow = row + (line.length - 1) * direction.getDeltaRow();
+        int lastCol = col + (line.length - 1) * direction.getDeltaCol();
+        int afterRun = runs.runNextTo(lastRow, lastCol, direction);
+        mainLength += RunIndex.length(afterRun);
+        mainColors |= RunIndex.colors(afterRun);
+        mainShapes |= RunIndex.shapes(afterRun);
+        if (!RunIndex.isValid(mainLength, mainColors, mainShapes)) return REFUSED;
+        return score + getScore(mainLength);
+    }
+
+    /**
+     * Scores the placement of tiles at several positions along a line against the index of the runs.
+     * The runs met along the line are merged once into the main line, even when they touch two of the tiles.
+     *
+     * @param line The array of at least two TileAtPosition objects representing tiles and their positions.
+     * @return The score obtained for the move, or REFUSED if the move is not allowed.
+     */
+    private int scoreTilesAtPositions(TileAtPosition... line) {
+        Direction direction = getAlignedDirection(line);
+        if (direction == null) return REFUSED;
+        Direction crossDirection = isVertical(direction) ? Direction.LEFT : Direction.UP;
+        int score = 0;
+        int mainLength = 0;
+        int mainColors = 0;
+        int mainShapes = 0;
+        for (int i = 0; i < line.length; i++) {
+            TileAtPosition tileAtPos = line[i];
+            int row = tileAtPos.row();
+            int col = tileAtPos.col();
+            if (!isCellExists(row, col) || isCellOccupied(row, col)) return REFUSED;
+            int tile = tileAtPos.tile().code();
+            int crossScore = scoreCrossLine(row, col, tile, crossDirection);
+            if (crossScore == REFUSED) return REFUSED;
+            int before = runs.runNextTo(row, col, direction.opposite());
+            int after = runs.runNextTo(row, col, direction);
+            if (crossScore == 0 && before == 0 && after == 0
+                    && (i == 0 || !isAdjacentToPrevTile(tileAtPos, line[i - 1], direction))) {
+                return REFUSED;
+            }
+            score += crossScore;
+            boolean beforeAlreadyMerged = i > 0 && isRunBetween(line[i - 1], tileAtPos, direction);
+            int merged = RunIndex.join(beforeAlreadyMerged ? 0 : before, after);
+            merged = RunIndex.join(merged, RunIndex.of(tile));
+            mainLength += RunIndex.length(merged);
+            mainColors |= RunIndex.colors(merged);
+            mainShapes |= RunIndex.shapes(merged);
+        }
+        if (!RunIndex.isValid(mainLength, mainColors, mainShapes)) return REFUSED;
+        return score + getScore(mainLength);
+    }
+
+    /**
+     * Scores the line crossing a cell along the axis of a direction, for a tile placed alone on that axis.
+     *
+     * @param row       The row of the cell.
+     * @param col       The column of the cell.
+     * @param tile      The code of the tile placed in the cell.
+     * @param direction The direction giving the axis of the line.
+     * @return The score obtained for the line, 0 if the cell has no neighbour along the axis, or REFUSED if the
+     * line is not valid.
+     */
+    private int scoreCrossLine(int row, int col, int tile, Direction direction) {
+        int before = runs.runNextTo(row, col, direction);
+        int after = runs.runNextTo(row, col, direction.opposite());
+        if (before == 0 && after == 0) return 0;
+        int line = RunIndex.join(RunIndex.join(before, RunIndex.of(tile)), after);
+        return RunIndex.isValid(line) ? getScore(RunIndex.length(line)) : REFUSED;
+    }
+
+    /**
+     * Scores the line of tiles crossing an occupied cell along the axis of a direction.
+     *
+     * @param row       The row of the cell.
+     * @param col       The column of the cell.
+     * @param direction The direction giving the axis of the line.
+     * @return The score of the line, 0 if the tile of the cell has no neighbour along the axis.
+     */
+    private int scoreLineThrough(int row, int col, Direction direction) {
+        int length = lengthThrough(row, col, direction);
+        return length > 1 ? getScore(length) : 0;
+    }
+
+    /**
+     * Counts the tiles of the line crossing an occupied cell along the axis of a direction, the tile of the cell
+     * included.
+     *
+     * @param row       The row of the cell.
+     * @param col       The column of the cell.
+     * @param direction The direction giving the axis of the line.
+     * @return The number of tiles of the line.
+     */
+    private int lengthThrough(int row, int col, Direction direction) {
+        return 1 + lengthFrom(row, col, direction) + lengthFrom(row, col, direction.opposite());
+    }
+
+    /**
+     * Counts the tiles following an occupied cell in a direction, up to the first empty cell.
+     *
+     * @param row       The row of the cell.
+     * @param col       The column of the cell.
+     * @param direction The direction in which the tiles are counted.
+     * @return The number of tiles following the cell, the tile of the cell excluded.
+     */
+    private int lengthFrom(int row, int col, Direction direction) {
+        int length = 0;
+        int r = row + direction.getDeltaRow();
+        int c = col + direction.getDeltaCol();
+        while (isCellExists(r, c) && isCellOccupied(r, c)) {
+            length++;
+            r += direction.getDeltaRow();
+            c += direction.getDeltaCol();
+        }
+        return length;
+    }
+
+    /**
+     * Checks whether the run following a tile along the main direction ends just before the next tile, in which case
+     * both tiles touch the same run.
+     *
+     * @param prevTile  The previous tile of the line.
+     * @param currTile  The current tile of the line.
+     * @param direction The main direction of the line.
+     * @return True if the cells between the two tiles are all occupied, false otherwise.
+     */
+    private boolean isRunBetween(TileAtPosition prevTile, TileAtPosition currTile, Direction direction) {
+        int after = runs.runNextTo(prevTile.row(), prevTile.col(), direction);
+        int gap = Math.abs(currTile.row() - prevTile.row()) + Math.abs(currTile.col() - prevTile.col()) - 1;
+        return after != 0 && RunIndex.length(after) == gap;
+    }
+
+    /**
+     * Gets the direction in which tiles at several positions are aligned, without reporting any error.
+     * Consecutive tiles going in the same direction are enough for every pair of tiles to go in that direction.
+     *
+     * @param line The array of at least two TileAtPosition objects.
+     * @return The common direction of the tiles, or null if they are not aligned in a single direction.
+     */
+    private static Direction getAlignedDirection(TileAtPosition[] line) {
+        Direction direction = null;
+        for (int i = 1; i < line.length; i++) {
+            TileAtPosition prev = line[i - 1];
+            TileAtPosition curr = line[i];
+            int result = getDirection(prev, curr);
+            if (MoveError.isError(result)) return null;
+            Direction currDirection = DIRECTIONS[result];
+            if (direction != null && currDirection != direction) return null;
+            direction = currDirection;
+        }
+        return direction;
+    }
+
+    /**
+     * Checks whether a direction follows a column.
+     *
+     * @param direction The direction.
+     * @return True for UP and DOWN, false for LEFT and RIGHT.
+     */
+    private static boolean isVertical(Direction direction) {
+        return direction == Direction.UP || direction == Direction.DOWN;
+    }
+
+    /**
+     * Checks the line crossing a cell along the axis of a direction, for a tile placed alone on that axis.
+     * The line is made of the chunk found in the direction, the tile, then the chunk found in the opposite direction.
+     *
+     * @param row        The row of the cell.
+     * @param col        The column of the cell.
+     * @param tile       The code of the tile placed in the cell.
+     * @param directions The mask of the directions leading to an adjacent tile.
+     * @param direction  The direction giving the axis of the line.
+     * @return The score obtained for the line, 0 if the cell has no neighbour along the axis, or the code of the
+     * MoveError refusing the line.
+     */
+    private int checkLineThrough(int row, int col, int tile, int directions, Direction direction) {
+        Direction opposite = direction.opposite();
+        int length;
+        if (hasDirection(directions, direction)) {
+            length = appendChunkOfLine(row, col, direction, crossLine(), 0);
+            if (MoveError.isError(length)) return length;
+            crossLine[length++] = tile;
+            if (hasDirection(directions, opposite)) {
+                length = appendChunkOfLine(row, col, opposite, crossLine, length);
+                if (MoveError.isError(length)) return length;
+            }
+        } else if (hasDirection(directions, opposite)) {
+            length = appendChunkOfLine(row, col, opposite, crossLine(), 0);
+            if (MoveError.isError(length)) return length;
+            crossLine[length++] = tile;
+        } else {
+            return 0;
+        }
+        int result = checkLineValidity(crossLine, length);
+        if (MoveError.isError(result)) return result;
+        return getScore(length);
+    }
+
+    /**
+     * Completes and checks chunks of tiles in different directions from a given position.
+     * The chunks along the main direction are merged once into the main line, the others are checked as cross lines.
      *
      * @param row                The starting row.
      * @param col                The starting column.
-     * @param copyLine           The list of tiles being built and checked.
-     * @param currTile           The current tile being added to the line.
-     * @param possibleDirections The list of possible directions to extend the line.
+     * @param currTile           The code of the current tile being added to the line.
+     * @param possibleDirections The mask of the directions leading to an adjacent tile.
      * @param mainDirection      The main direction of the line.
-     * @return The score obtained for a move.
-     * @throws QwirkleException If there are issues with the tile placement or line validity.
+     * @return The score obtained for the cross lines, or the code of the MoveError refusing one of the lines.
      */
-    private int completeAndCheckChunks(int row, int col, ArrayList<Tile> copyLine, Tile currTile,
-                                       ArrayList<Direction> possibleDirections, Direction mainDirection) {
+    private int completeAndCheckChunks(int row, int col, int currTile, int possibleDirections,
+                                       Direction mainDirection) {
         int score = 0;
-        for (Direction possibleDirection : possibleDirections) {
-            ArrayList<Tile> chunk1 = getChunkOfLine(row, col, possibleDirection);
+        for (Direction possibleDirection : DIRECTIONS) {
+            if (!hasDirection(possibleDirections, possibleDirection)) continue;
             if (possibleDirection == mainDirection.opposite() || possibleDirection == mainDirection) {
-                if (!copyLine.containsAll(chunk1)) {
-                    copyLine.addAll(chunk1);
-                }
+                int result = mergeChunkIntoMainLine(row, col, possibleDirection);
+                if (MoveError.isError(result)) return result;
                 continue;
             }
 
-            if (possibleDirections.contains(possibleDirection.opposite())) {
-                ArrayList<Tile> chunk2 = getChunkOfLine(row, col, possibleDirection.opposite());
-                chunk1.addAll(chunk2);
-                possibleDirections.remove(possibleDirection.opposite());
+            int length = appendChunkOfLine(row, col, possibleDirection, crossLine(), 0);
+            if (MoveError.isError(length)) return length;
+            Direction opposite = possibleDirection.opposite();
+            if (hasDirection(possibleDirections, opposite)) {
+                length = appendChunkOfLine(row, col, opposite, crossLine, length);
+                if (MoveError.isError(length)) return length;
+                possibleDirections &= ~directionBit(opposite);
             }
-            chunk1.add(currTile);
-            checkLineValidity(chunk1);
-            score += getScore(chunk1);
+            crossLine[length++] = currTile;
+            int result = checkLineValidity(crossLine, length);
+            if (MoveError.isError(result)) return result;
+            score += getScore(length);
         }
         return score;
     }
 
+    /**
+     * Appends to the main line the chunk found in a direction from a cell, unless one of its cells was already merged.
+     *
+     * @param row       The row of the cell.
+     * @param col       The column of the cell.
+     * @param direction The direction of the chunk.
+     * @return 0 if the chunk was merged or skipped, or the code of the MoveError refusing a chunk too long.
+     */
+    private int mergeChunkIntoMainLine(int row, int col, Direction direction) {
+        int firstRow = row + direction.getDeltaRow();
+        int firstCol = col + direction.getDeltaCol();
+        long firstCell = CellMap.key(firstRow, firstCol);
+        for (int i = 0; i < mergedCount; i++) {
+            if (mergedCells[i] == firstCell) return 0;
+        }
+        int start = mainLength;
+        ensureMainLineCapacity(MAX_CHUNK_LENGTH);
+        int length = appendChunkOfLine(row, col, direction, mainLine, mainLength);
+        if (MoveError.isError(length)) return length;
+        mainLength = length;
+        if (mergedCells.length < mergedCount + mainLength - start) {
+            long[] larger = new long[(mergedCount + mainLength - start) * 2];
+            System.arraycopy(mergedCells, 0, larger, 0, mergedCount);
+            mergedCells = larger;
+        }
+        for (int i = 0; i < mainLength - start; i++) {
+            mergedCells[mergedCount++] = CellMap.key(firstRow + i * direction.getDeltaRow(),
+                    firstCol + i * direction.getDeltaCol());
+        }
+        return 0;
+    }
+
+    /**
+     * Empties the main line and the merged cells before checking a move.
+     *
+     * @param tiles The number of tiles played, used to size the main line.
+     */
+    private void startMainLine(int tiles) {
+        if (mainLine == null) {
+            mainLine = new int[MAX_TILES_PER_LINE * 2];
+            mergedCells = new long[MAX_TILES_PER_LINE * 2];
+        }
+        mainLength = 0;
+        mergedCount = 0;
+        ensureMainLineCapacity(tiles);
+    }
+
+    /**
+     * Appends a tile to the main line.
+     *
+     * @param tile The code of the tile.
+     */
+    private void appendToMainLine(int tile) {
+        ensureMainLineCapacity(1);
+        mainLine[mainLength++] = tile;
+    }
+
+    /**
+     * Grows the main line so that it can receive additional tiles.
+     *
+     * @param additionalTiles The number of tiles that will be appended.
+     */
+    private void ensureMainLineCapacity(int additionalTiles) {
+        if (mainLine.length < mainLength + additionalTiles) {
+            int[] larger = new int[(mainLength + additionalTiles) * 2];
+            System.arraycopy(mainLine, 0, larger, 0, mainLength);
+            mainLine = larger;
+        }
+    }
+
+    /**
+     * Gets the buffer used to check cross lines, large enough for two chunks and a tile.
+     *
+     * @return The buffer of the cross lines.
+     */
+    private int[] crossLine() {
+        if (crossLine == null) {
+            crossLine = new int[MAX_CHUNK_LENGTH * 2 + 1];
+        }
+        return crossLine;
+    }
 
     /**
      * Checks if the current tile is adjacent to the previous tile of the hand's player.
@@ -244,16 +929,17 @@ public class Grid implements Serializable {
      * Checks if all tiles in the array are aligned in the same direction.
      *
      * @param line The array of TileAtPosition objects representing tiles and their positions.
-     * @return The common direction in which tiles are aligned.
-     * @throws QwirkleException If tiles are not aligned in the same direction.
+     * @return The ordinal of the common direction in which tiles are aligned, or the code of the MoveError refusing
+     * their alignment.
      */
-    private Direction checkIfTilesAreAlignInSameDirection(TileAtPosition[] line) {
-        Direction direction = getDirection(line[0], line[1]);
+    private static int checkIfTilesAreAlignInSameDirection(TileAtPosition[] line) {
+        int direction = getDirection(line[0], line[1]);
+        if (MoveError.isError(direction)) return direction;
         for (int i = 0; i < line.length; i++) {
             for (int j = 0; j < i; j++) {
-                if (getDirection(line[j], line[i]) != direction) {
-                    throw new QwirkleException("You have to keep the same direction.");
-                }
+                int currDirection = getDirection(line[j], line[i]);
+                if (MoveError.isError(currDirection)) return currDirection;
+                if (currDirection != direction) return MoveError.NOT_SAME_DIRECTION.toResult();
             }
         }
         return direction;
@@ -286,82 +972,90 @@ public class Grid implements Serializable {
      *
      * @param tap1 The first tile.
      * @param tap2 The second tile.
-     * @return The direction from tile1 to tile2.
-     * @throws QwirkleException If tiles are in the same position.
+     * @return The ordinal of the direction from tile1 to tile2, or the code of the MoveError refusing the tiles if
+     * they share a cell or are not aligned.
      */
-    private static Direction getDirection(TileAtPosition tap1, TileAtPosition tap2) {
+    private static int getDirection(TileAtPosition tap1, TileAtPosition tap2) {
         if (areUsingSameCell(tap1, tap2)) {
-            throw new QwirkleException("Prohibited: Tiles sharing the same cell.");
+            return MoveError.SAME_CELL.toResult();
         }
 
         if (!haveCommonRowOrCol(tap1, tap2)) {
-            throw new QwirkleException("Prohibited: Tiles are not aligned.");
+            return MoveError.NOT_ALIGNED.toResult();
         }
 
 
-        if (tap2.row() - tap1.row() > 0) return Direction.DOWN;
-        else if (tap2.row() - tap1.row() < 0) return Direction.UP;
-        else if (tap2.col() - tap1.col() > 0) return Direction.RIGHT;
-        else return Direction.LEFT;
+        if (tap2.row() - tap1.row() > 0) return Direction.DOWN.ordinal();
+        else if (tap2.row() - tap1.row() < 0) return Direction.UP.ordinal();
+        else if (tap2.col() - tap1.col() > 0) return Direction.RIGHT.ordinal();
+        else return Direction.LEFT.ordinal();
     }
 
     /**
      * Checks whether a player is playing by color or shape.
      *
-     * @param tile1 The first tile.
-     * @param tile2 The second tile.
-     * @return True if playing by color, false if playing by shape.
-     * @throws QwirkleException If both tiles have the same color and shape.
+     * @param tile1 The code of the first tile.
+     * @param tile2 The code of the second tile.
+     * @return PLAYING_BY_COLOR or PLAYING_BY_SHAPE, or the code of the MoveError refusing the tiles if they share
+     * both their color and their shape, or none of them.
      */
 
-    private static boolean checkWhatIsHePlaying(Tile tile1, Tile tile2) {
-        boolean areSameColor = tile1.color() == tile2.color();
-        boolean areSameShape = tile1.shape() == tile2.shape();
-        if (areSameShape && areSameColor) throw new QwirkleException("Duplicate tiles found on a single line.");
-        else if (!areSameShape && !areSameColor) throw new QwirkleException("Tiles have no shared attributes.");
-        else return areSameColor;
+    private static int checkWhatIsHePlaying(int tile1, int tile2) {
+        boolean areSameColor = Tile.colorOf(tile1) == Tile.colorOf(tile2);
+        boolean areSameShape = Tile.shapeOf(tile1) == Tile.shapeOf(tile2);
+        if (areSameShape && areSameColor) return MoveError.DUPLICATE_TILES.toResult();
+        else if (!areSameShape && !areSameColor) return MoveError.NO_SHARED_ATTRIBUTE.toResult();
+        else return areSameColor ? PLAYING_BY_COLOR : PLAYING_BY_SHAPE;
     }
 
     /**
      * Checks the validity of a line of tiles.
      *
-     * @param line The line of tiles to check.
-     * @throws QwirkleException If the line contains more than 6 tiles or duplicates.
+     * @param line   The buffer holding the codes of the tiles of the line.
+     * @param length The number of tiles in the line.
+     * @return 0 if the line is valid, or the code of the MoveError refusing it.
      */
-    private static void checkLineValidity(ArrayList<Tile> line) {
-        if (line.isEmpty()) throw new QwirkleException("At least one tile required on a line.");
-        if (line.size() > MAX_TILES_PER_LINE) throw new QwirkleException("Maximum of six tiles allowed on a line.");
-        if (line.size() > 1) {
-            boolean result = checkWhatIsHePlaying(line.get(0), line.get(1));
-            for (int i = 2; i < line.size(); i++) {
+    private static int checkLineValidity(int[] line, int length) {
+        if (length == 0) return MoveError.EMPTY_LINE.toResult();
+        if (length > MAX_TILES_PER_LINE) return MoveError.LINE_TOO_LONG.toResult();
+        if (length > 1) {
+            int result = checkWhatIsHePlaying(line[0], line[1]);
+            if (MoveError.isError(result)) return result;
+            for (int i = 2; i < length; i++) {
                 for (int j = 0; j < i; j++) {
-                    if (result != checkWhatIsHePlaying(line.get(i), line.get(j))) {
-                        throw new QwirkleException("Tiles have no shared attributes.");
+                    int currResult = checkWhatIsHePlaying(line[i], line[j]);
+                    if (MoveError.isError(currResult)) return currResult;
+                    if (result != currResult) {
+                        return MoveError.NO_SHARED_ATTRIBUTE.toResult();
                     }
                 }
             }
         }
+        return 0;
     }
 
     /**
-     * Retrieves a line of tiles in a specified direction from a given position.
+     * Appends to a buffer the codes of the line of tiles found in a specified direction from a given position.
      *
      * @param row       The starting row.
      * @param col       The starting column.
      * @param direction The direction of the line.
-     * @return An array of tiles in the specified line.
+     * @param buffer    The buffer receiving the codes, with room for MAX_CHUNK_LENGTH more tiles.
+     * @param length    The number of tiles already in the buffer.
+     * @return The number of tiles in the buffer once the chunk is appended, or the code of the MoveError refusing a
+     * chunk longer than MAX_CHUNK_LENGTH.
      */
-    private ArrayList<Tile> getChunkOfLine(int row, int col, Direction direction) {
-        ArrayList<Tile> line = new ArrayList<>(MAX_TILES_PER_LINE);
+    private int appendChunkOfLine(int row, int col, Direction direction, int[] buffer, int length) {
+        int start = length;
         row += direction.getDeltaRow();
         col += direction.getDeltaCol();
         while (isCellExists(row, col) && isCellOccupied(row, col)) {
-            if (line.size() > MAX_TILES_PER_LINE) throw new QwirkleException("Maximum of six tiles allowed on a line.");
-            line.add(tiles[col][row]);
+            if (length - start > MAX_TILES_PER_LINE) return MoveError.LINE_TOO_LONG.toResult();
+            buffer[length++] = board.get(row, col);
             row += direction.getDeltaRow();
             col += direction.getDeltaCol();
         }
-        return line;
+        return length;
     }
 
     /**
@@ -369,11 +1063,22 @@ public class Grid implements Serializable {
      *
      * @param row The row of the cell.
      * @param col The column of the cell.
-     * @throws QwirkleException If the cell is outside the grid, already occupied, or not adjacent to a line.
+     * @return 0 if a tile can be placed in the cell, or the code of the MoveError refusing it.
+     */
+    private int checkCellValidity(int row, int col) {
+        if (!isCellExists(row, col)) return MoveError.OUTSIDE_GRID.toResult();
+        if (isCellOccupied(row, col)) return MoveError.CELL_OCCUPIED.toResult();
+        return 0;
+    }
+
+    /**
+     * Throws the error represented by the result of an evaluation, if any.
+     *
+     * @param result The result of the evaluation.
+     * @throws QwirkleException If the result is the code of a MoveError.
      */
-    private void checkCellValidity(int row, int col) {
-        if (!isCellExists(row, col)) throw new QwirkleException("The chosen cell is located outside the grid.");
-        if (isCellOccupied(row, col)) throw new QwirkleException("The chosen cell is already occupied by a tile.");
+    private static void throwIfError(int result) {
+        if (MoveError.isError(result)) throw new QwirkleException(MoveError.of(result).getMessage());
     }
 
     /**
@@ -383,8 +1088,41 @@ public class Grid implements Serializable {
      * @param col The column of the cell.
      * @return True if the cell exists, false otherwise.
      */
-    private static boolean isCellExists(int row, int col) {
-        return row < GRID_ROW_SIZE && col < GRID_COL_SIZE;
+    private boolean isCellExists(int row, int col) {
+        return board.contains(row, col);
+    }
+
+    /**
+     * Stores a tile in a cell of the grid and extends the bounding box of the occupied cells to include it.
+     * The tile is recorded in the history, so that it can be removed by removeLastTiles.
+     *
+     * @param row  The row of the cell.
+     * @param col  The column of the cell.
+     * @param tile The tile to store.
+     */
+    private void setCell(int row, int col, Tile tile) {
+        int up = runs.runNextTo(row, col, Direction.UP);
+        int down = runs.runNextTo(row, col, Direction.DOWN);
+        int left = runs.runNextTo(row, col, Direction.LEFT);
+        int right = runs.runNextTo(row, col, Direction.RIGHT);
+        if (history.length < (tileCount + 1) * HISTORY_STRIDE) {
+            history = Arrays.copyOf(history, history.length * 2);
+        }
+        int at = tileCount++ * HISTORY_STRIDE;
+        history[at] = CellMap.key(row, col);
+        history[at + 1] = ((long) up << 32) | (down & 0xFFFFFFFFL);
+        history[at + 2] = ((long) left << 32) | (right & 0xFFFFFFFFL);
+        history[at + 3] = CellMap.key(minRow, minCol);
+        history[at + 4] = CellMap.key(maxRow, maxCol);
+        board.set(row, col, tile.code());
+        hash ^= Zobrist.cell(row, col, tile.code());
+        runs.place(row, col, tile.code());
+        frontier.place(row, col, RunIndex.length(up), RunIndex.length(down), RunIndex.length(left),
+                RunIndex.length(right));
+        minRow = Math.min(minRow, row);
+        minCol = Math.min(minCol, col);
+        maxRow = Math.max(maxRow, row);
+        maxCol = Math.max(maxCol, col);
     }
 
 
@@ -396,39 +1134,61 @@ public class Grid implements Serializable {
      * @return True if the cell is occupied, false otherwise.
      */
     private boolean isCellOccupied(int row, int col) {
-        return tiles[col][row] != null;
+        return board.get(row, col) != Tile.EMPTY;
     }
 
 
     /**
-     * Retrieves a list of possible directions for placing a tile at the specified cell.
+     * Retrieves the possible directions for placing a tile at the specified cell.
      *
      * @param row The row of the cell.
      * @param col The column of the cell.
-     * @return A list of valid directions for tile placement.
-     * @throws QwirkleException If the tile is not adjacent to any line on the grid.
+     * @return A mask holding the bit of each direction leading to an adjacent tile.
      */
-    private ArrayList<Direction> getPossibleDirections(int row, int col) {
-        ArrayList<Direction> directions = new ArrayList<>(Arrays.asList(Direction.values()));
-        directions.removeIf(d -> {
+    private int getPossibleDirections(int row, int col) {
+        int directions = 0;
+        for (Direction d : DIRECTIONS) {
             int rowWithOffset = row + d.getDeltaRow();
             int colWithOffset = col + d.getDeltaCol();
-            return !isCellExists(rowWithOffset, colWithOffset) || !isCellOccupied(rowWithOffset, colWithOffset);
-        });
+            if (isCellExists(rowWithOffset, colWithOffset) && isCellOccupied(rowWithOffset, colWithOffset)) {
+                directions |= directionBit(d);
+            }
+        }
         return directions;
     }
 
     /**
-     * Calculates the score for a given line of tiles.
+     * Gets the bit representing a direction in a mask of directions.
+     *
+     * @param direction The direction.
+     * @return The bit of the direction.
+     */
+    private static int directionBit(Direction direction) {
+        return 1 << direction.ordinal();
+    }
+
+    /**
+     * Checks whether a mask of directions contains a direction.
+     *
+     * @param directions The mask of directions.
+     * @param direction  The direction to look for.
+     * @return True if the direction is in the mask, false otherwise.
+     */
+    private static boolean hasDirection(int directions, Direction direction) {
+        return (directions & directionBit(direction)) != 0;
+    }
+
+    /**
+     * Calculates the score for a line of tiles.
      *
-     * @param line The line of tiles to calculate the score for.
+     * @param length The number of tiles in the line.
      * @return The score obtained for the line.
      */
-    private int getScore(ArrayList<Tile> line) {
-        if (line.size() == 6) {
-            return line.size() * 2;
+    static int getScore(int length) {
+        if (length == 6) {
+            return length * 2;
         } else {
-            return line.size();
+            return length;
         }
     }
 }
@@ -28,6 +28,106 @@ public class GridView implements Serializable {
         return grid.get(row, col);
     }
 
+    /**
+     * Retrieves the smallest row holding a tile, only meaningful when the grid is not empty.
+     *
+     * @return The smallest occupied row.
+     */
+    public int getMinRow(){
+        return grid.getMinRow();
+    }
+
+    /**
+     * Retrieves the smallest column holding a tile, only meaningful when the grid is not empty.
+     *
+     * @return The smallest occupied column.
+     */
+    public int getMinCol(){
+        return grid.getMinCol();
+    }
+
+    /**
+     * Retrieves the largest row holding a tile, only meaningful when the grid is not empty.
+     *
+     * @return The largest occupied row.
+     */
+    public int getMaxRow(){
+        return grid.getMaxRow();
+    }
+
+    /**
+     * Retrieves the largest column holding a tile, only meaningful when the grid is not empty.
+     *
+     * @return The largest occupied column.
+     */
+    public int getMaxCol(){
+        return grid.getMaxCol();
+    }
+
+    /**
+     * Evaluates the first move on the game grid without placing its tiles.
+     * The evaluation uses working buffers of the grid and must not run concurrently with another evaluation.
+     *
+     * @param line The tiles of the first move.
+     * @return The score of the move, or the negative code of the MoveError refusing it.
+     */
+    public int evaluateFirst(Tile... line){
+        return grid.evaluateFirst(line);
+    }
+
+    /**
+     * Evaluates the placement of a tile at a specified position without placing it.
+     *
+     * @param row  The row where the tile would be added.
+     * @param col  The column where the tile would be added.
+     * @param tile The tile to be evaluated.
+     * @return The score of the move, or the negative code of the MoveError refusing it.
+     */
+    public int evaluate(int row, int col, Tile tile){
+        return grid.evaluate(row, col, tile);
+    }
+
+    /**
+     * Evaluates the placement of multiple tiles in a specified direction without placing them.
+     *
+     * @param row       The starting row.
+     * @param col       The starting column.
+     * @param direction The direction of the tiles.
+     * @param line      The tiles to be evaluated.
+     * @return The score of the move, or the negative code of the MoveError refusing it.
+     */
+    public int evaluate(int row, int col, Direction direction, Tile... line){
+        return grid.evaluate(row, col, direction, line);
+    }
+
+    /**
+     * Evaluates the placement of multiple tiles at specified positions without placing them.
+     *
+     * @param line The tiles and their positions.
+     * @return The score of the move, or the negative code of the MoveError refusing it.
+     */
+    public int evaluate(TileAtPosition... line){
+        return grid.evaluate(line);
+    }
+
+    /**
+     * Gets the Zobrist hash of the tiles of the grid.
+     *
+     * @return The hash of the grid.
+     */
+    public long getHash(){
+        return grid.getHash();
+    }
+
+    /**
+     * Gets the grid seen through this view, for the classes of the model working on its internals.
+     *
+     * @return The game grid.
+     */
+    Grid getGrid(){
+        return grid;
+    }
+
     /**
      * Checks if the game grid is empty.
      *
@@ -0,0 +1,267 @@
+package g61453.qwirkle.Model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Records the turns of a game in a file as they are played, so that the game can be rebuilt after a crash by playing
+ * them again. The file starts with a save of the game in the format of SaveFormat, taken when the journal is opened,
+ * followed by one entry per turn played or undone, appended at the end of the file. A turn holds a tag giving the
+ * number of tiles placed, the row, the column and the code of each tile in the order they were placed, the codes of
+ * the tiles drawn and the score of the player after the turn, that is 4 to 27 bytes. An undo holds its tag only.
+ * Each entry is written to the file as soon as its turn is played, so that it survives a crash of the program, and
+ * the file is forced to the disk once every given number of entries, so that no more entries are lost when the
+ * system itself crashes.
+ * When the journal is read, each turn is played again with every check of the rules, and the tiles drawn and the
+ * score must be those written. The first entry that is incomplete or does not match ends the journal, since it can
+ * only come from a write interrupted by a crash.
+ */
+final class Journal implements Closeable {
+    static final int MAGIC = 0x51574B4A;
+    static final short VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Integer.BYTES;
+    private static final int TURN = 0x40;
+    private static final int UNDO = 0x80;
+    private static final int MAX_TILES = 6;
+    private static final int MAX_ENTRY_SIZE = 1 + 3 * MAX_TILES + 1 + MAX_TILES + Short.BYTES;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int syncEvery;
+    private int unsynced;
+
+    /**
+     * Constructs a journal appending its entries at the position of a channel.
+     *
+     * @param channel   The channel of the file, open for writing.
+     * @param syncEvery The number of entries after which the file is forced to the disk, 0 to leave it to the system.
+     * @throws QwirkleException If the number of entries is negative.
+     */
+    Journal(FileChannel channel, int syncEvery) {
+        if (syncEvery < 0) {
+            throw new QwirkleException("The number of turns between two syncs of the journal cannot be negative.");
+        }
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(MAX_ENTRY_SIZE);
+        this.syncEvery = syncEvery;
+    }
+
+    /**
+     * Creates a journal in a file, replacing it if it exists, starting with a save of a game.
+     *
+     * @param game      The game whose turns are recorded.
+     * @param file      The path of the file.
+     * @param syncEvery The number of entries after which the file is forced to the disk, 0 to leave it to the system.
+     * @return The journal, ready to record the turns of the game.
+     * @throws IOException If the file cannot be written.
+     */
+    static Journal create(Game game, Path file, int syncEvery) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            ByteBuffer save = SaveFormat.encode(game);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putShort(VERSION)
+                    .putInt(save.remaining()).flip();
+            ByteBuffer[] buffers = {header, save};
+            while (save.hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(false);
+            return new Journal(channel, syncEvery);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Rebuilds a game from a journal, reading the save at its start and playing its entries again. The channel is
+     * left at the end of the last entry played, where the next entries are to be written.
+     *
+     * @param channel The channel of the file, at any position.
+     * @return The game as it was after the last entry played.
+     * @throws IOException      If the file cannot be read.
+     * @throws QwirkleException If the file does not start with a valid save.
+     */
+    static Game replay(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), Integer.MAX_VALUE));
+        channel.position(0);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) break;
+        }
+        buffer.flip();
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+            throw new QwirkleException("The file is not a journal of this version of the game.");
+        }
+        int saveSize = buffer.getInt();
+        if (saveSize < 0 || saveSize > buffer.remaining()) {
+            throw new QwirkleException("The journal is damaged.");
+        }
+        Game game = SaveFormat.decode(buffer.slice(buffer.position(), saveSize));
+        buffer.position(buffer.position() + saveSize);
+        int end = buffer.position();
+        while (buffer.hasRemaining() && replayEntry(game, buffer)) {
+            end = buffer.position();
+        }
+        channel.position(end);
+        return game;
+    }
+
+    /**
+     * Records a turn, once it is played.
+     *
+     * @param grid  The grid of the game, holding the tiles placed during the turn last.
+     * @param turn  The record of the turn.
+     * @param score The score of the player after the turn.
+     * @throws IOException If the entry cannot be written.
+     */
+    void recordTurn(Grid grid, Turn turn, int score) throws IOException {
+        buffer.clear();
+        int placed = turn.getTilesPlaced();
+        buffer.put((byte) (TURN + placed));
+        for (int i = grid.getTileCount() - placed; i < grid.getTileCount(); i++) {
+            long cell = grid.placedCell(i);
+            int row = CellMap.rowOf(cell);
+            int col = CellMap.colOf(cell);
+            buffer.put((byte) row).put((byte) col).put((byte) grid.get(row, col).code());
+        }
+        Tile[] drawn = turn.getDrawn();
+        buffer.put((byte) drawn.length);
+        for (Tile tile : drawn) {
+            buffer.put((byte) tile.code());
+        }
+        buffer.putShort((short) score);
+        write();
+    }
+
+    /**
+     * Records that the last turn was undone.
+     *
+     * @throws IOException If the entry cannot be written.
+     */
+    void recordUndo() throws IOException {
+        buffer.clear();
+        buffer.put((byte) UNDO);
+        write();
+    }
+
+    /**
+     * Forces the entries not yet synced to the disk, then closes the file.
+     *
+     * @throws IOException If the file cannot be forced or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (unsynced > 0) channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the entry held by the buffer at the end of the file, and forces the file to the disk once enough entries
+     * were written since the last time.
+     *
+     * @throws IOException If the entry cannot be written.
+     */
+    private void write() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        unsynced++;
+        if (syncEvery > 0 && unsynced >= syncEvery) {
+            channel.force(false);
+            unsynced = 0;
+        }
+    }
+
+    /**
+     * Plays an entry of a journal again.
+     *
+     * @param game   The game rebuilt so far.
+     * @param buffer The buffer holding the entry at its position.
+     * @return True if the entry was played, false if it is incomplete or does not match the game, which is then left
+     * as it was.
+     */
+    private static boolean replayEntry(Game game, ByteBuffer buffer) {
+        try {
+            int tag = Byte.toUnsignedInt(buffer.get());
+            if (tag == UNDO) return game.undo();
+            int placed = tag - TURN;
+            if (placed < 0 || placed > MAX_TILES || game.isOver()) return false;
+            int[] rows = new int[placed];
+            int[] cols = new int[placed];
+            Tile[] tiles = new Tile[placed];
+            for (int i = 0; i < placed; i++) {
+                rows[i] = Byte.toUnsignedInt(buffer.get());
+                cols[i] = Byte.toUnsignedInt(buffer.get());
+                tiles[i] = readTile(buffer);
+            }
+            int drawnCount = buffer.get();
+            if (drawnCount < 0 || drawnCount > MAX_TILES) return false;
+            Tile[] drawn = new Tile[drawnCount];
+            for (int i = 0; i < drawnCount; i++) {
+                drawn[i] = readTile(buffer);
+            }
+            int score = buffer.getShort();
+            int seat = game.getCurrentPlayerIndex();
+            if (placed == 0) {
+                if (drawnCount != 0) return false;
+                game.pass();
+            } else {
+                Move move = game.toMove(rows, cols, tiles);
+                if (move == null) return false;
+                Turn turn = game.apply(move);
+                if (!Arrays.equals(turn.getDrawn(), drawn) || !isPlacedAt(game.getGridModel(), rows, cols)) {
+                    game.undo();
+                    return false;
+                }
+            }
+            if (game.getPlayerScore(seat) != score) {
+                game.undo();
+                return false;
+            }
+            return true;
+        } catch (BufferUnderflowException | QwirkleException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the code of a tile.
+     *
+     * @param buffer The buffer to read from.
+     * @return The tile.
+     * @throws QwirkleException If the code is not the one of a tile.
+     */
+    private static Tile readTile(ByteBuffer buffer) {
+        int code = buffer.get();
+        if (code < 1 || code > Tile.TYPES) {
+            throw new QwirkleException("The journal is damaged.");
+        }
+        return Tile.fromCode(code);
+    }
+
+    /**
+     * Checks whether the last tiles placed on a grid are in given cells, in order.
+     *
+     * @param grid The grid.
+     * @param rows The rows of the cells.
+     * @param cols The columns of the cells.
+     * @return True if the tiles were placed in these cells, false otherwise.
+     */
+    private static boolean isPlacedAt(Grid grid, int[] rows, int[] cols) {
+        int first = grid.getTileCount() - rows.length;
+        for (int i = 0; i < rows.length; i++) {
+            if (grid.placedCell(first + i) != CellMap.key(rows[i], cols[i])) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,326 @@
+package g61453.qwirkle.Model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Chooses a move by information set Monte Carlo tree search: the player cannot see the hands of the other players nor
+ * the order of the bag, so each iteration deals the unseen tiles again at random before walking down the tree.
+ * The tree holds one node per move, whoever plays it, a move being found again in another deal by its tiles and
+ * cells rather than by the indexes of the hand they come from. A node is chosen by UCT among the moves legal in the
+ * deal of the iteration, the bonus of a move growing with the number of iterations in which it was available rather
+ * than with the visits of its parent. The move scoring the most among those never tried is added to the tree, then
+ * a few turns are played, each player taking the move scoring the most, and the points won by each player since the
+ * root are turned into rewards.
+ * Every thread of the pool searches a tree of its own on a copy of the game, the moves being played and reverted
+ * on that copy, and the visits of the moves of the roots are added up once the time budget is spent. The move
+ * visited the most is played.
+ * Listing the legal moves is by far the largest cost of an iteration, so the turns played after the tree are few
+ * and take the best scoring move rather than a random one, which costs the same once the moves are listed.
+ */
+public class MonteCarloStrategy implements Strategy {
+    private static final double EXPLORATION = 0.7;
+    private static final int PLAYOUT_ROUNDS = 2;
+    private static final double REWARD_SCALE = 24;
+    private final ForkJoinPool pool;
+    private final long budgetNanos;
+    private final SplittableRandom random;
+    private long lastIterations;
+
+    /**
+     * Constructs a Monte Carlo strategy searching on the common fork/join pool.
+     *
+     * @param budgetNanos The time budget of a move, in nanoseconds.
+     * @param seed        The seed of the random numbers.
+     * @throws QwirkleException If the budget is not strictly positive.
+     */
+    public MonteCarloStrategy(long budgetNanos, long seed) {
+        this(budgetNanos, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a Monte Carlo strategy.
+     *
+     * @param budgetNanos The time budget of a move, in nanoseconds.
+     * @param seed        The seed of the random numbers.
+     * @param pool        The pool whose threads search the trees.
+     * @throws QwirkleException If the budget is not strictly positive.
+     */
+    public MonteCarloStrategy(long budgetNanos, long seed, ForkJoinPool pool) {
+        if (budgetNanos <= 0) {
+            throw new QwirkleException("The time budget of a move must be strictly positive.");
+        }
+        this.pool = pool;
+        this.budgetNanos = budgetNanos;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Chooses the move of the current player visited the most by the searches of the threads, the one rewarded the
+     * most among those visited as often.
+     *
+     * @param game The game, which is not over.
+     * @return The chosen move, or null to pass.
+     * @throws QwirkleException If a search fails, or if the thread is interrupted while waiting.
+     */
+    @Override
+    public Move choose(Game game) {
+        return choose(game, System.nanoTime() + budgetNanos);
+    }
+
+    /**
+     * Chooses the move of the current player visited the most by the searches of the threads before a deadline.
+     *
+     * @param game     The game, which is not over.
+     * @param deadline The value of System.nanoTime after which no iteration starts.
+     * @return The chosen move, or null to pass.
+     * @throws QwirkleException If a search fails, or if the thread is interrupted while waiting.
+     */
+    @Override
+    public Move choose(Game game, long deadline) {
+        List<Move> legal = game.getLegalMoves();
+        if (legal.size() <= 1) return legal.isEmpty() ? null : legal.get(0);
+        List<Callable<Node>> searches = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, pool.getParallelism()); i++) {
+            Game copy = game.copy();
+            SplittableRandom searchRandom = random.split();
+            searches.add(() -> new Search(copy, searchRandom).run(deadline));
+        }
+        Map<Move, Long> visits = new HashMap<>();
+        Map<Move, Double> rewards = new HashMap<>();
+        long iterations = 0;
+        try {
+            for (Future<Node> search : pool.invokeAll(searches)) {
+                Node root = search.get();
+                iterations += root.visits;
+                for (Node child : root.children.values()) {
+                    visits.merge(child.move, child.visits, Long::sum);
+                    rewards.merge(child.move, child.reward, Double::sum);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QwirkleException("The search was interrupted.");
+        } catch (ExecutionException e) {
+            throw new QwirkleException("The search failed: " + e.getCause());
+        }
+        lastIterations = iterations;
+        Move best = legal.get(0);
+        long bestVisits = -1;
+        double bestReward = 0;
+        for (Move move : legal) {
+            long count = visits.getOrDefault(move, 0L);
+            double reward = rewards.getOrDefault(move, 0.0);
+            if (count > bestVisits || count == bestVisits && reward > bestReward) {
+                best = move;
+                bestVisits = count;
+                bestReward = reward;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the number of iterations run by all the threads for the last move chosen.
+     *
+     * @return The number of iterations.
+     */
+    public long getLastIterations() {
+        return lastIterations;
+    }
+
+    /**
+     * A node of a search tree: the move leading to it, the player who played it and the rewards of that player.
+     */
+    private static class Node {
+        private final Move move;
+        private final int seat;
+        private final Map<Move, Node> children;
+        private long visits;
+        private long availability;
+        private double reward;
+
+        /**
+         * Constructs a node.
+         *
+         * @param move The move leading to the node, null for a pass or for the root.
+         * @param seat The index of the player who played the move, -1 for the root.
+         */
+        Node(Move move, int seat) {
+            this.move = move;
+            this.seat = seat;
+            this.children = new HashMap<>();
+        }
+
+        /**
+         * Computes the UCT value of the node among the children available in an iteration.
+         *
+         * @return The mean reward of the node plus its exploration bonus.
+         */
+        double uct() {
+            return reward / visits + EXPLORATION * Math.sqrt(Math.log(availability) / visits);
+        }
+    }
+
+    /**
+     * The search of one thread, on a copy of the game of its own.
+     */
+    private static class Search {
+        private final Game game;
+        private final SplittableRandom random;
+        private final MoveGenerator generator;
+        private final int seat;
+        private final int[] rootScores;
+        private final double[] rewards;
+        private final List<Node> path;
+
+        /**
+         * Constructs a search.
+         *
+         * @param game   The copy of the game searched, which the search plays and reverts.
+         * @param random The random numbers of the search.
+         */
+        Search(Game game, SplittableRandom random) {
+            this.game = game;
+            this.random = random;
+            this.generator = new MoveGenerator();
+            this.seat = game.getCurrentPlayerIndex();
+            this.rootScores = new int[game.getPlayerCount()];
+            for (int i = 0; i < rootScores.length; i++) {
+                rootScores[i] = game.getPlayerScore(i);
+            }
+            this.rewards = new double[rootScores.length];
+            this.path = new ArrayList<>();
+        }
+
+        /**
+         * Runs iterations until the deadline.
+         *
+         * @param deadline The value of System.nanoTime after which no iteration starts.
+         * @return The root of the tree.
+         */
+        Node run(long deadline) {
+            Node root = new Node(null, -1);
+            do {
+                iterate(root);
+            } while (System.nanoTime() - deadline < 0);
+            return root;
+        }
+
+        /**
+         * Runs one iteration: deals the unseen tiles, walks down the tree, adds the node of the move scoring the most
+         * among those never tried, plays a few turns, rewards the nodes walked through, then reverts every turn
+         * played.
+         *
+         * @param root The root of the tree.
+         */
+        private void iterate(Node root) {
+            game.redeal(seat, random.nextLong());
+            path.clear();
+            path.add(root);
+            int played = 0;
+            Node node = root;
+            boolean expanded = false;
+            while (!expanded && !game.isOver()) {
+                List<Move> moves = game.getLegalMoves(generator);
+                Node next = null;
+                Move nextMove = null;
+                boolean hasUntried = false;
+                Move untried = null;
+                if (moves.isEmpty()) {
+                    next = node.children.get(null);
+                    if (next == null) hasUntried = true;
+                    else next.availability++;
+                } else {
+                    for (Move move : moves) {
+                        Node child = node.children.get(move);
+                        if (child == null) {
+                            if (!hasUntried || move.getScore() > untried.getScore()) untried = move;
+                            hasUntried = true;
+                        } else {
+                            child.availability++;
+                            if (next == null || child.uct() > next.uct()) {
+                                next = child;
+                                nextMove = move;
+                            }
+                        }
+                    }
+                }
+                if (hasUntried) {
+                    nextMove = untried;
+                    next = new Node(nextMove, game.getCurrentPlayerIndex());
+                    next.availability = 1;
+                    node.children.put(nextMove, next);
+                    expanded = true;
+                }
+                play(nextMove);
+                played++;
+                node = next;
+                path.add(node);
+            }
+            for (int turn = 0; turn < PLAYOUT_ROUNDS * rootScores.length && !game.isOver(); turn++) {
+                List<Move> moves = game.getLegalMoves(generator);
+                play(bestOf(moves));
+                played++;
+            }
+            computeRewards();
+            for (Node visited : path) {
+                visited.visits++;
+                if (visited.seat >= 0) visited.reward += rewards[visited.seat];
+            }
+            for (int i = 0; i < played; i++) {
+                game.undo();
+            }
+        }
+
+        /**
+         * Picks the move scoring the most, the cheapest sensible choice once the moves are listed.
+         *
+         * @param moves The legal moves.
+         * @return The move scoring the most, or null if there is none.
+         */
+        private static Move bestOf(List<Move> moves) {
+            Move best = null;
+            for (Move move : moves) {
+                if (best == null || move.getScore() > best.getScore()) best = move;
+            }
+            return best;
+        }
+
+        /**
+         * Plays a move on the copy of the game.
+         *
+         * @param move The move, or null to pass.
+         */
+        private void play(Move move) {
+            if (move == null) {
+                game.pass();
+            } else {
+                game.apply(move);
+            }
+        }
+
+        /**
+         * Turns the points won by each player since the root into rewards between 0 and 1, a player winning 0.5
+         * more for each REWARD_SCALE points won over the best of the other players.
+         */
+        private void computeRewards() {
+            for (int i = 0; i < rewards.length; i++) {
+                int gain = game.getPlayerScore(i) - rootScores[i];
+                int bestOther = Integer.MIN_VALUE;
+                for (int j = 0; j < rewards.length; j++) {
+                    if (j != i) bestOther = Math.max(bestOther, game.getPlayerScore(j) - rootScores[j]);
+                }
+                double reward = 0.5 + (gain - bestOther) / (2 * REWARD_SCALE);
+                rewards[i] = Math.max(0, Math.min(1, reward));
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package g61453.qwirkle.Model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Represents a legal move of a player: the tiles of the hand played, the cells where they go and the score obtained.
+ * The tiles are kept in the order in which the grid accepts them, so that the move can be played as it is.
+ * Two moves are equal when they place the same tiles in the same cells in the same way, whichever indexes of the
+ * hand the tiles come from, so that a move can be recognized in another deal of the same position.
+ */
+public class Move implements Serializable {
+    private final MoveKind kind;
+    private final Direction direction;
+    private final int[] rows;
+    private final int[] cols;
+    private final int[] handIndexes;
+    private final Tile[] tiles;
+    private final int score;
+
+    /**
+     * Constructs a move.
+     *
+     * @param kind        The kind of the move.
+     * @param direction   The direction in which the tiles follow each other, or null for a SINGLE move.
+     * @param rows        The rows of the tiles, in the order in which they are played.
+     * @param cols        The columns of the tiles, in the order in which they are played.
+     * @param handIndexes The indexes of the tiles in the hand of the player.
+     * @param tiles       The tiles played.
+     * @param score       The score obtained for the move.
+     */
+    Move(MoveKind kind, Direction direction, int[] rows, int[] cols, int[] handIndexes, Tile[] tiles, int score) {
+        this.kind = kind;
+        this.direction = direction;
+        this.rows = rows;
+        this.cols = cols;
+        this.handIndexes = handIndexes;
+        this.tiles = tiles;
+        this.score = score;
+    }
+
+    /**
+     * Gets the kind of the move.
+     *
+     * @return The kind of the move.
+     */
+    public MoveKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the direction in which the tiles follow each other.
+     *
+     * @return The direction of the move, or null for a SINGLE move.
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * Gets the number of tiles played.
+     *
+     * @return The number of tiles of the move.
+     */
+    public int size() {
+        return tiles.length;
+    }
+
+    /**
+     * Gets the row of a tile of the move.
+     *
+     * @param index The index of the tile in the move.
+     * @return The row where the tile is placed.
+     */
+    public int getRow(int index) {
+        return rows[index];
+    }
+
+    /**
+     * Gets the column of a tile of the move.
+     *
+     * @param index The index of the tile in the move.
+     * @return The column where the tile is placed.
+     */
+    public int getCol(int index) {
+        return cols[index];
+    }
+
+    /**
+     * Gets the index in the hand of the player of a tile of the move.
+     *
+     * @param index The index of the tile in the move.
+     * @return The index of the tile in the hand.
+     */
+    public int getHandIndex(int index) {
+        return handIndexes[index];
+    }
+
+    /**
+     * Gets a tile of the move.
+     *
+     * @param index The index of the tile in the move.
+     * @return The tile.
+     */
+    public Tile getTile(int index) {
+        return tiles[index];
+    }
+
+    /**
+     * Gets the score obtained for the move.
+     *
+     * @return The score of the move.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the tiles of the move with their positions, in the order in which they are played.
+     *
+     * @return An array of TileAtPosition objects.
+     */
+    public TileAtPosition[] toTilesAtPositions() {
+        TileAtPosition[] line = new TileAtPosition[tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            line[i] = new TileAtPosition(rows[i], cols[i], tiles[i]);
+        }
+        return line;
+    }
+
+    /**
+     * Checks whether another object is a move placing the same tiles in the same cells in the same way.
+     *
+     * @param o The object to compare.
+     * @return True if the moves are equal, false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Move other)) return false;
+        return kind == other.kind && direction == other.direction && Arrays.equals(rows, other.rows)
+                && Arrays.equals(cols, other.cols) && Arrays.equals(tiles, other.tiles);
+    }
+
+    /**
+     * Computes a hash code consistent with equals.
+     *
+     * @return The hash code of the move.
+     */
+    @Override
+    public int hashCode() {
+        int hash = kind.ordinal() * 31 + (direction == null ? 0 : direction.ordinal() + 1);
+        hash = hash * 31 + Arrays.hashCode(rows);
+        hash = hash * 31 + Arrays.hashCode(cols);
+        return hash * 31 + Arrays.hashCode(tiles);
+    }
+}
@@ -0,0 +1,76 @@
+package g61453.qwirkle.Model;
+
+/**
+ * The reasons why a move can be refused.
+ * The evaluation of a move returns a compact result: the score of the move when it is allowed, or a negative code
+ * identifying one of these errors otherwise.
+ */
+public enum MoveError {
+    FIRST_TURN_ONLY("Utilize this method strictly during the very first turn of the game!"),
+    NOT_FIRST_TURN("Method not to be used during the initial turn of the game!"),
+    OUTSIDE_GRID("The chosen cell is located outside the grid."),
+    CELL_OCCUPIED("The chosen cell is already occupied by a tile."),
+    TILE_NOT_CONNECTED("Prohibited action: Tile must connect to existing line."),
+    FIRST_TILE_NOT_CONNECTED("Prohibited action: First tile must connect to existing line."),
+    TILES_NOT_CONNECTED("Prohibited action: Tiles must connect to existing line or tile of your hand."),
+    NOT_SAME_DIRECTION("You have to keep the same direction."),
+    SAME_CELL("Prohibited: Tiles sharing the same cell."),
+    NOT_ALIGNED("Prohibited: Tiles are not aligned."),
+    DUPLICATE_TILES("Duplicate tiles found on a single line."),
+    NO_SHARED_ATTRIBUTE("Tiles have no shared attributes."),
+    EMPTY_LINE("At least one tile required on a line."),
+    LINE_TOO_LONG("Maximum of six tiles allowed on a line."),
+    INSUFFICIENT_TILES("Insufficient tiles for the action."),
+    UNKNOWN_TILE("The selected tiles do not exist."),
+    TILE_SELECTED_TWICE("You cannot select many times the same tile.");
+
+    private static final MoveError[] ERRORS = values();
+    private final String message;
+
+    /**
+     * Constructs an error with the message shown to the player.
+     *
+     * @param message The message describing the error.
+     */
+    MoveError(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Gets the message shown to the player.
+     *
+     * @return The message describing the error.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Gets the result representing this error.
+     *
+     * @return A negative code identifying this error.
+     */
+    public int toResult() {
+        return -(ordinal() + 1);
+    }
+
+    /**
+     * Checks whether the result of an evaluation is an error.
+     *
+     * @param result The result of the evaluation.
+     * @return True if the move was refused, false if the result is its score.
+     */
+    public static boolean isError(int result) {
+        return result < 0;
+    }
+
+    /**
+     * Gets the error represented by the result of an evaluation.
+     *
+     * @param result The result of the evaluation, which must be an error.
+     * @return The error.
+     */
+    public static MoveError of(int result) {
+        return ERRORS[-result - 1];
+    }
+}
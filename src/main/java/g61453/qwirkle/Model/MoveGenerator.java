@@ -0,0 +1,532 @@
+package g61453.qwirkle.Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lists the legal moves of a hand against a grid, with their score.
+ * Like the move generators of Scrabble engines, it only looks at the anchors, the empty cells of the frontier of the
+ * grid. For every row and every column holding anchors, the tiles of the hand are laid from each cell close enough
+ * to an anchor, one cell after the other, skipping over the tiles of the grid met on the way. A tile is only laid
+ * where the frontier says it fits the crossing line, and the line being built is checked at each step, so that dead
+ * ends are left as soon as they appear.
+ * The generator keeps working buffers from one call to the next and must not be shared between threads.
+ */
+public class MoveGenerator {
+    private static final int MAX_TILES_PER_LINE = 6;
+    private static final int FIRST_ROW = 45;
+    private static final int FIRST_COL = 45;
+    private final int[] placedPositions;
+    private final int[] placedIndexes;
+    private final boolean[] placedConnected;
+    private long[] cellCrossFitting;
+    private int[] cellCross;
+    private int[] cellBefore;
+    private int[] cellAfter;
+    private int[] cellNext;
+    private boolean[] cellFree;
+    private boolean[] cellConnected;
+    private boolean[] cellNextFree;
+    private int[] cellLooked;
+    private int lookedLine;
+    private int lineFirst;
+    private int lineStamp;
+    private int anchorPosition;
+    private int anchorAfter;
+    private long anchorCrossFitting;
+    private long[] anchors;
+    private int anchorCount;
+    private Grid grid;
+    private Frontier frontier;
+    private List<Tile> hand;
+    private int[] handCodes;
+    private long handMask;
+    private long[] unusedCodes;
+    private final int[] indexesOfCode;
+    private List<Move> moves;
+    private int part;
+    private int parts;
+    private long deadline;
+    private boolean timed;
+    private boolean complete;
+    private boolean lineLooked;
+
+    /**
+     * Constructs a move generator.
+     */
+    public MoveGenerator() {
+        placedPositions = new int[MAX_TILES_PER_LINE];
+        placedIndexes = new int[MAX_TILES_PER_LINE];
+        placedConnected = new boolean[MAX_TILES_PER_LINE];
+        allocateCells(0);
+        anchors = new long[MAX_TILES_PER_LINE * 8];
+        unusedCodes = new long[1 << MAX_TILES_PER_LINE];
+        indexesOfCode = new int[Tile.TYPES + 1];
+    }
+
+    /**
+     * Lists every legal move of a hand against a grid.
+     * Tiles sharing their color and shape are interchangeable, so a move is listed once whichever of them it uses.
+     * On the first turn, each set of tiles forming a line is listed once, placed to the right of the center of the
+     * grid in the order of their codes, every order scoring the same.
+     * Otherwise, the moves listed are the contiguous ones: their tiles and the tiles of the grid between them form a
+     * single line without any empty cell, and the first or the last of their tiles touches a tile of the grid so that
+     * the move can start from it. The grid also accepts tiles laid along a line with empty cells between them, each
+     * of them touching the grid, but such moves are not listed.
+     *
+     * @param gridView The grid on which the tiles would be played.
+     * @param hand     The tiles of the hand of the player.
+     * @return The legal moves, possibly none.
+     */
+    public List<Move> generate(GridView gridView, List<Tile> hand) {
+        return generate(gridView, hand, 0, 1, false, 0);
+    }
+
+    /**
+     * Lists the legal moves of a hand laid along one part of the lines of a grid, within a time limit.
+     * The rows and the columns are split into parts by their index modulo the number of parts, the moves of a line
+     * depending on that line only, so that the parts can be listed by as many generators and their moves put
+     * together give every legal move. The moves of the first turn all belong to the part 0.
+     * When the time limit is reached, the lines not yet looked at are left out and the result is not complete; the
+     * first line of the part holding an anchor is always looked at, so that a move is found whenever that line has
+     * one, however short the time limit.
+     *
+     * @param gridView The grid on which the tiles would be played.
+     * @param hand     The tiles of the hand of the player.
+     * @param part     The part of the lines to look at, between 0 and the number of parts excluded.
+     * @param parts    The number of parts into which the lines are split.
+     * @param deadline The value of System.nanoTime after which no other line is looked at.
+     * @return The legal moves found, possibly none.
+     */
+    public List<Move> generate(GridView gridView, List<Tile> hand, int part, int parts, long deadline) {
+        return generate(gridView, hand, part, parts, true, deadline);
+    }
+
+    /**
+     * Tells whether the last call to generate looked at every line of its part before its time limit.
+     *
+     * @return True if every move of the part was listed, false otherwise.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Lists the legal moves of a hand laid along one part of the lines of a grid.
+     *
+     * @param gridView The grid on which the tiles would be played.
+     * @param hand     The tiles of the hand of the player.
+     * @param part     The part of the lines to look at.
+     * @param parts    The number of parts into which the lines are split.
+     * @param timed    True if the deadline applies, false to list every move.
+     * @param deadline The value of System.nanoTime after which no other line is looked at.
+     * @return The legal moves found, possibly none.
+     */
+    private List<Move> generate(GridView gridView, List<Tile> hand, int part, int parts, boolean timed,
+                                long deadline) {
+        this.part = part;
+        this.parts = parts;
+        this.timed = timed;
+        this.deadline = deadline;
+        this.complete = true;
+        this.lineLooked = false;
+        this.grid = gridView.getGrid();
+        this.frontier = grid.getFrontier();
+        this.hand = hand;
+        this.handCodes = new int[hand.size()];
+        this.handMask = 0;
+        for (int i = 0; i < handCodes.length; i++) {
+            handCodes[i] = hand.get(i).code();
+            handMask |= 1L << (handCodes[i] - 1);
+        }
+        indexUnusedTiles();
+        List<Move> result = new ArrayList<>();
+        moves = result;
+        if (grid.isEmpty()) {
+            if (part == 0) addFirstMoves(sortedByCode(), 0, 0, 0);
+        } else {
+            collectAnchors();
+            addMovesAlong(false);
+            addMovesAlong(true);
+        }
+        this.grid = null;
+        this.frontier = null;
+        this.hand = null;
+        this.moves = null;
+        return result;
+    }
+
+    /**
+     * Lists the first moves made of the tiles following a set of tiles already chosen.
+     *
+     * @param order The indexes of the hand sorted by code, so that equal tiles follow each other.
+     * @param start The position in the order from which the next tile is chosen.
+     * @param count The number of tiles already chosen.
+     * @param run   The description of the line made of the tiles already chosen.
+     */
+    private void addFirstMoves(int[] order, int start, int count, int run) {
+        for (int i = start; i < order.length; i++) {
+            int index = order[i];
+            if (i > start && handCodes[order[i - 1]] == handCodes[index]) continue;
+            int line = RunIndex.join(run, RunIndex.of(handCodes[index]));
+            if (!RunIndex.isValid(line)) continue;
+            placedIndexes[count] = index;
+            placedPositions[count] = FIRST_COL + count;
+            addMove(MoveKind.FIRST, FIRST_ROW, false, count + 1, true, Grid.getScore(count + 1));
+            addFirstMoves(order, i + 1, count + 1, line);
+        }
+    }
+
+    /**
+     * Sorts the indexes of the hand by the code of their tile.
+     *
+     * @return The sorted indexes.
+     */
+    private int[] sortedByCode() {
+        long[] keys = new long[handCodes.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) handCodes[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    /**
+     * Collects the cells of the frontier of the grid in which at least one tile of the hand fits.
+     * Any tile laid in a cell of the frontier must fit the tiles already around it, so a cell fitting none of the
+     * tiles of the hand cannot be reached by a move.
+     */
+    private void collectAnchors() {
+        anchorCount = 0;
+        if (anchors.length < frontier.size()) {
+            anchors = new long[frontier.size() * 2];
+        }
+        for (int slot = 0; slot < frontier.slots(); slot++) {
+            if (!frontier.isCellAt(slot)) continue;
+            int row = frontier.rowAt(slot);
+            int col = frontier.colAt(slot);
+            if ((frontier.fittingTiles(row, col) & handMask) != 0) {
+                anchors[anchorCount++] = CellMap.key(row, col);
+            }
+        }
+    }
+
+    /**
+     * Lists the moves laying tiles along the rows, or along the columns.
+     * A single tile is listed with the rows only.
+     *
+     * @param vertical True to lay the tiles along the columns, false to lay them along the rows.
+     */
+    private void addMovesAlong(boolean vertical) {
+        long[] sorted = new long[anchorCount];
+        for (int i = 0; i < anchorCount; i++) {
+            int row = CellMap.rowOf(anchors[i]);
+            int col = CellMap.colOf(anchors[i]);
+            sorted[i] = vertical ? sortKey(col, row) : sortKey(row, col);
+        }
+        Arrays.sort(sorted);
+        int first = (vertical ? grid.getMinRow() : grid.getMinCol()) - 2 * MAX_TILES_PER_LINE;
+        int last = (vertical ? grid.getMaxRow() : grid.getMaxCol()) + 2 * MAX_TILES_PER_LINE;
+        if (cellLooked.length < last - first + 1) {
+            allocateCells(last - first + 1);
+        }
+        long previousLine = Long.MIN_VALUE;
+        long lastStart = Long.MIN_VALUE;
+        for (long key : sorted) {
+            int line = lineOf(key);
+            int anchor = positionOf(key);
+            if (Math.floorMod(line, parts) != part) continue;
+            if (line != previousLine) {
+                if (timed && lineLooked && System.nanoTime() - deadline > 0) {
+                    complete = false;
+                    return;
+                }
+                lineLooked = true;
+                previousLine = line;
+                lastStart = Long.MIN_VALUE;
+                startLine(line, first);
+            }
+            long from = Math.max((long) anchor - (MAX_TILES_PER_LINE - 1), lastStart + 1);
+            int anchorSlot = slotOf(anchor, vertical);
+            anchorPosition = anchor;
+            anchorAfter = cellAfter[anchorSlot];
+            anchorCrossFitting = cellCrossFitting[anchorSlot];
+            for (long start = from; start <= anchor; start++) {
+                int slot = slotOf((int) start, vertical);
+                if (cellFree[slot]) {
+                    extend(line, (int) start, vertical, 0, 0, cellBefore[slot], 0);
+                }
+            }
+            lastStart = Math.max(lastStart, anchor);
+        }
+    }
+
+    /**
+     * Lays each fitting tile of the hand in an empty cell of a line, lists the move obtained, then goes on with the
+     * next empty cell of the line.
+     * What the grid says about a cell does not depend on the tiles laid before it, so it is looked up once per line,
+     * whatever the start and the number of tiles laid, and kept by position.
+     * Tiles laid before the anchor without touching the grid only make a move if the line goes on up to the anchor,
+     * so they are given up as soon as no tile left in the hand could both fit the anchor and extend them.
+     *
+     * @param line       The row, or the column, along which the tiles are laid.
+     * @param position   The column, or the row, of the empty cell.
+     * @param vertical   True if the tiles are laid along a column, false along a row.
+     * @param count      The number of tiles already laid.
+     * @param used       The mask of the indexes of the hand already laid.
+     * @param run        The description of the line built before the cell, including the tiles of the grid.
+     * @param crossScore The score of the crossing lines of the tiles already laid.
+     */
+    private void extend(int line, int position, boolean vertical, int count, int used, int run, int crossScore) {
+        int slot = slotOf(position, vertical);
+        if (position < anchorPosition && !cellConnected[slot] && (count == 0 || !placedConnected[0])
+                && !canReachAnchor(position, count, used, run)) {
+            return;
+        }
+        int cross = cellCross[slot];
+        int after = cellAfter[slot];
+        int nextPosition = cellNext[slot];
+        long fitting = cellCrossFitting[slot] & RunIndex.fittingTiles(RunIndex.join(run, after));
+        for (long left = fitting & unusedCodes[used]; left != 0; left &= left - 1) {
+            int code = Long.numberOfTrailingZeros(left) + 1;
+            int i = firstUnused(code, used);
+            int built = RunIndex.join(RunIndex.join(run, RunIndex.of(code)), after);
+            placedPositions[count] = position;
+            placedIndexes[count] = i;
+            placedConnected[count] = cellConnected[slot];
+            int length = RunIndex.length(built);
+            if (count > 0 || !vertical) {
+                addPlacement(line, vertical, count + 1, crossScore + cross + (length > 1 ? Grid.getScore(length) : 0));
+            }
+            if (cellNextFree[slot] && length < MAX_TILES_PER_LINE) {
+                extend(line, nextPosition, vertical, count + 1, used | (1 << i), built, crossScore + cross);
+            }
+        }
+    }
+
+    /**
+     * Checks whether tiles laid before the anchor, none of them touching the grid, could still be part of a move, the
+     * line going on up to the anchor.
+     *
+     * @param position The column, or the row, of the next empty cell.
+     * @param count    The number of tiles already laid.
+     * @param used     The mask of the indexes of the hand already laid.
+     * @param run      The description of the line built before the next cell.
+     * @return False if the line cannot reach the anchor, true if it may.
+     */
+    private boolean canReachAnchor(int position, int count, int used, int run) {
+        int tilesLeft = Math.min(handCodes.length, MAX_TILES_PER_LINE) - count;
+        if (anchorPosition - position + 1 > tilesLeft) return false;
+        return (RunIndex.fittingTiles(RunIndex.join(run, anchorAfter)) & anchorCrossFitting & unusedCodes[used]) != 0;
+    }
+
+    /**
+     * Starts looking at another line, what was looked up about the cells of the previous one no longer holding.
+     *
+     * @param line  The row, or the column, along which the tiles are laid.
+     * @param first The position kept in the first slot, below any position the tiles can be laid at.
+     */
+    private void startLine(int line, int first) {
+        lookedLine = line;
+        lineFirst = first;
+        if (++lineStamp == 0) {
+            Arrays.fill(cellLooked, 0);
+            lineStamp = 1;
+        }
+    }
+
+    /**
+     * Gets the slot keeping what the grid says about a cell of the line being looked at, looking it up the first time
+     * the cell is met.
+     *
+     * @param position The column, or the row, of the cell.
+     * @param vertical True if the tiles are laid along a column, false along a row.
+     * @return The slot of the cell.
+     */
+    private int slotOf(int position, boolean vertical) {
+        int slot = position - lineFirst;
+        if (cellLooked[slot] != lineStamp) {
+            lookUpCell(lookedLine, position, vertical, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Looks up what the grid says about a cell in which a tile would be laid: whether it is empty, the tiles fitting
+     * its crossing line, the score of that line, the runs before and after the cell and whether the tiles can go on
+     * after it.
+     * A cell out of the frontier has no neighbour, so that a single lookup tells it all; the runs around a cell of
+     * the frontier are looked up in the index of the runs.
+     *
+     * @param line     The row, or the column, along which the tiles are laid.
+     * @param position The column, or the row, of the cell.
+     * @param vertical True if the tiles are laid along a column, false along a row.
+     * @param slot     The slot keeping what is looked up.
+     */
+    private void lookUpCell(int line, int position, boolean vertical, int slot) {
+        int row = vertical ? position : line;
+        int col = vertical ? line : position;
+        cellLooked[slot] = lineStamp;
+        cellFree[slot] = grid.isFree(row, col);
+        if (!cellFree[slot]) return;
+        int nextPosition = position + 1;
+        if (frontier.contains(row, col)) {
+            Direction forward = vertical ? Direction.DOWN : Direction.RIGHT;
+            Direction crossDirection = vertical ? Direction.LEFT : Direction.UP;
+            int crossRun = RunIndex.join(grid.runNextTo(row, col, crossDirection),
+                    grid.runNextTo(row, col, crossDirection.opposite()));
+            int crossLength = RunIndex.length(crossRun);
+            int before = grid.runNextTo(row, col, forward.opposite());
+            int after = grid.runNextTo(row, col, forward);
+            nextPosition += RunIndex.length(after);
+            cellCrossFitting[slot] = RunIndex.fittingTiles(crossRun);
+            cellCross[slot] = crossLength == 0 ? 0 : Grid.getScore(crossLength + 1);
+            cellBefore[slot] = before;
+            cellAfter[slot] = after;
+            cellConnected[slot] = crossLength != 0 || before != 0 || after != 0;
+        } else {
+            cellCrossFitting[slot] = RunIndex.fittingTiles(0);
+            cellCross[slot] = 0;
+            cellBefore[slot] = 0;
+            cellAfter[slot] = 0;
+            cellConnected[slot] = false;
+        }
+        cellNext[slot] = nextPosition;
+        cellNextFree[slot] = grid.isFree(vertical ? nextPosition : line, vertical ? line : nextPosition);
+    }
+
+    /**
+     * Allocates the slots keeping what the grid says about the cells of a line.
+     *
+     * @param size The number of slots.
+     */
+    private void allocateCells(int size) {
+        cellCrossFitting = new long[size];
+        cellCross = new int[size];
+        cellBefore = new int[size];
+        cellAfter = new int[size];
+        cellNext = new int[size];
+        cellFree = new boolean[size];
+        cellConnected = new boolean[size];
+        cellNextFree = new boolean[size];
+        cellLooked = new int[size];
+    }
+
+    /**
+     * Lists the tiles laid along a line as a move, in an order the grid accepts.
+     *
+     * @param line     The row, or the column, along which the tiles are laid.
+     * @param vertical True if the tiles are laid along a column, false along a row.
+     * @param count    The number of tiles laid.
+     * @param score    The score obtained for the move.
+     */
+    private void addPlacement(int line, boolean vertical, int count, int score) {
+        boolean forward;
+        if (placedConnected[0]) forward = true;
+        else if (placedConnected[count - 1]) forward = false;
+        else return;
+        MoveKind kind;
+        if (count == 1) kind = MoveKind.SINGLE;
+        else if (placedPositions[count - 1] - placedPositions[0] == count - 1) kind = MoveKind.LINE;
+        else kind = MoveKind.PLIC_PLOC;
+        addMove(kind, line, vertical, count, forward, score);
+    }
+
+    /**
+     * Records a move made of the tiles laid.
+     *
+     * @param kind     The kind of the move.
+     * @param line     The row, or the column, along which the tiles are laid.
+     * @param vertical True if the tiles are laid along a column, false along a row.
+     * @param count    The number of tiles laid.
+     * @param forward  True to play the tiles in the order they were laid, false to play them in the reverse order.
+     * @param score    The score obtained for the move.
+     */
+    private void addMove(MoveKind kind, int line, boolean vertical, int count, boolean forward, int score) {
+        int[] rows = new int[count];
+        int[] cols = new int[count];
+        int[] indexes = new int[count];
+        Tile[] tiles = new Tile[count];
+        for (int i = 0; i < count; i++) {
+            int laid = forward ? i : count - 1 - i;
+            rows[i] = vertical ? placedPositions[laid] : line;
+            cols[i] = vertical ? line : placedPositions[laid];
+            indexes[i] = placedIndexes[laid];
+            tiles[i] = hand.get(placedIndexes[laid]);
+        }
+        Direction direction = null;
+        if (count > 1 || kind == MoveKind.FIRST) {
+            direction = vertical ? Direction.DOWN : Direction.RIGHT;
+            if (!forward) direction = direction.opposite();
+        }
+        moves.add(new Move(kind, direction, rows, cols, indexes, tiles, score));
+    }
+
+    /**
+     * Indexes the tiles of the hand for extend: for each set of indexes already laid, the codes of the tiles left,
+     * and for each code, the indexes of the hand holding it.
+     */
+    private void indexUnusedTiles() {
+        int sets = 1 << handCodes.length;
+        if (unusedCodes.length < sets) {
+            unusedCodes = new long[sets];
+        }
+        unusedCodes[sets - 1] = 0;
+        for (int used = sets - 2; used >= 0; used--) {
+            int i = Integer.numberOfTrailingZeros(~used);
+            unusedCodes[used] = unusedCodes[used | (1 << i)] | (1L << (handCodes[i] - 1));
+        }
+        Arrays.fill(indexesOfCode, 0);
+        for (int i = 0; i < handCodes.length; i++) {
+            indexesOfCode[handCodes[i]] |= 1 << i;
+        }
+    }
+
+    /**
+     * Finds the first tile of the hand of a given code not laid yet, so that equal tiles are laid in the order of the
+     * hand and each move is listed once whichever of them it uses.
+     *
+     * @param code The code of the tile, held by the hand and not laid yet.
+     * @param used The mask of the indexes of the hand already laid.
+     * @return The index of the tile in the hand.
+     */
+    private int firstUnused(int code, int used) {
+        return Integer.numberOfTrailingZeros(indexesOfCode[code] & ~used);
+    }
+
+    /**
+     * Packs a line and a position into a key whose natural order sorts the cells line by line.
+     *
+     * @param line     The row, or the column.
+     * @param position The column, or the row.
+     * @return The key of the cell.
+     */
+    private static long sortKey(int line, int position) {
+        return ((long) line << 32) | ((position ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the line packed into a key by sortKey.
+     *
+     * @param key The key of the cell.
+     * @return The row, or the column.
+     */
+    private static int lineOf(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Gets the position packed into a key by sortKey.
+     *
+     * @param key The key of the cell.
+     * @return The column, or the row.
+     */
+    private static int positionOf(long key) {
+        return (int) key ^ Integer.MIN_VALUE;
+    }
+}
@@ -0,0 +1,22 @@
+package g61453.qwirkle.Model;
+/**
+ * The kinds of moves a player can make, each one played through its own method of the game.
+ */
+public enum MoveKind {
+    /**
+     * The tiles of the first move of the game, placed in a line from the center of the grid.
+     */
+    FIRST,
+    /**
+     * A single tile added next to the tiles of the grid.
+     */
+    SINGLE,
+    /**
+     * Several tiles added in consecutive cells, starting from a cell and going in a direction.
+     */
+    LINE,
+    /**
+     * Several tiles added along a row or a column, with tiles of the grid between some of them.
+     */
+    PLIC_PLOC
+}
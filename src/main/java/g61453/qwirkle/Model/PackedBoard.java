@@ -0,0 +1,53 @@
+package g61453.qwirkle.Model;
+
+/**
+ * A bounded board storing its cells in a single array, row after row, with one byte per cell.
+ */
+class PackedBoard implements Board {
+    private final byte[] cells;
+    private final int rows;
+    private final int cols;
+
+    /**
+     * Constructs an empty board of the given size.
+     *
+     * @param rows The number of rows.
+     * @param cols The number of columns.
+     */
+    PackedBoard(int rows, int cols) {
+        this.cells = new byte[rows * cols];
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Constructs a copy of a board.
+     *
+     * @param other The board to copy.
+     */
+    private PackedBoard(PackedBoard other) {
+        this.cells = other.cells.clone();
+        this.rows = other.rows;
+        this.cols = other.cols;
+    }
+
+    @Override
+    public boolean contains(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    @Override
+    public int get(int row, int col) {
+        return cells[row * cols + col];
+    }
+
+    @Override
+    public void set(int row, int col, int code) {
+        cells[row * cols + col] = (byte) code;
+    }
+
+    @Override
+    public Board copy() {
+        return new PackedBoard(this);
+    }
+}
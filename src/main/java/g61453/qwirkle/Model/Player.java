@@ -1,32 +1,83 @@
 package g61453.qwirkle.Model;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.AbstractList;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Represents a player in the Qwirkle game, including their name and hand of tiles.
+ * The hand is kept as the codes of its tiles in an array of fixed capacity, in the order the tiles were drawn. It is
+ * read through a view created once, so that reading the hand does not allocate.
+ * The Zobrist hash of the hand is updated with each tile added or removed. It only depends on the tiles held, not on
+ * their order.
  */
 public class Player implements Serializable {
     private String name;
-    private List<Tile> tiles;
+    private final Bag bag;
+    private final byte[] hand;
+    private int handSize;
     private int score;
+    private long handHash;
+    private transient List<Tile> handView;
+    static final int HAND_SIZE = 6;
 
     /**
-     * Constructs a new Player object with the given name.
+     * Constructs a new Player object with the given name, drawing their hand from the bag of their game.
      *
      * @param name The name of the player.
+     * @param bag  The bag of the game, from which the player draws their tiles.
      */
-    Player(String name) {
+    Player(String name, Bag bag) {
         this.name = name;
-        Bag bag = Bag.getInstance();
-        Tile[] tiles = bag.getRandomTiles(6);
-        this.tiles = new ArrayList<>(Arrays.asList(tiles));
+        this.bag = bag;
+        this.hand = new byte[HAND_SIZE];
+        for (Tile tile : bag.getRandomTiles(HAND_SIZE)) {
+            addToHand(tile.code());
+        }
         this.score = 0;
     }
 
+    /**
+     * Constructs a player holding a given hand, as they were when their game was saved.
+     *
+     * @param name  The name of the player.
+     * @param bag   The bag of the game, from which the player draws their tiles.
+     * @param hand  The tiles of the hand, in order.
+     * @param score The score of the player.
+     */
+    Player(String name, Bag bag, Tile[] hand, int score) {
+        this.name = name;
+        this.bag = bag;
+        this.hand = new byte[HAND_SIZE];
+        restore(hand, score);
+    }
+
+    /**
+     * Constructs a copy of a player, drawing from the copy of the bag of their game.
+     *
+     * @param other The player to copy.
+     * @param bag   The copy of the bag of the game.
+     */
+    private Player(Player other, Bag bag) {
+        this.name = other.name;
+        this.bag = bag;
+        this.hand = other.hand.clone();
+        this.handSize = other.handSize;
+        this.score = other.score;
+        this.handHash = other.handHash;
+    }
+
+    /**
+     * Creates a copy of the player, with the same name, hand and score, drawing from the copy of the bag.
+     *
+     * @param bag The copy of the bag of the game.
+     * @return The copy of the player.
+     */
+    Player copy(Bag bag) {
+        return new Player(this, bag);
+    }
+
     /**
      * Gets the name of the player.
      *
@@ -41,22 +92,124 @@ public class Player implements Serializable {
     }
 
     /**
-     * Gets an unmodifiable view of the player's hand of tiles.
+     * Gets an unmodifiable view of the player's hand of tiles. The view follows the changes of the hand.
      *
      * @return An unmodifiable list of tiles in the player's hand.
      */
     public List<Tile> getHand() {
-        return Collections.unmodifiableList(tiles);
+        if (handView == null) {
+            handView = new HandView();
+        }
+        return handView;
+    }
+
+    /**
+     * Gets the code of a tile of the player's hand.
+     *
+     * @param index The index of the tile in the hand.
+     * @return The code of the tile.
+     */
+    int codeAt(int index) {
+        return hand[index];
+    }
+
+    /**
+     * Counts the copies of a tile in the player's hand.
+     *
+     * @param code The code of the tile.
+     * @return The number of copies held.
+     */
+    int count(int code) {
+        int copies = 0;
+        for (int i = 0; i < handSize; i++) {
+            if (hand[i] == code) copies++;
+        }
+        return copies;
+    }
+
+    /**
+     * Gets the kinds of tiles held, as a mask in which a tile is represented by the bit code - 1, like the masks of
+     * the frontier of the grid.
+     *
+     * @return The mask of the tiles held, 0 for an empty hand.
+     */
+    long getHandMask() {
+        long mask = 0;
+        for (int i = 0; i < handSize; i++) {
+            mask |= 1L << (hand[i] - 1);
+        }
+        return mask;
     }
 
     /**
-     * Refills the player's hand by drawing missing tiles from the bag.
+     * Refills the player's hand by drawing missing tiles from the bag, as many as the bag still holds.
      */
     public void refill() {
-        Bag bag = Bag.getInstance();
-        int numberOfMissingTile = 6 - tiles.size();
-        Tile[] missingTiles = bag.getRandomTiles(numberOfMissingTile);
-        this.tiles.addAll(Arrays.asList(missingTiles));
+        refill(new int[getTilesToDraw()]);
+    }
+
+    /**
+     * Gets the number of tiles drawn by a refill, limited by the tiles left in the bag.
+     *
+     * @return The number of tiles missing in the hand, or the number of tiles in the bag if it is lower.
+     */
+    int getTilesToDraw() {
+        return Math.min(HAND_SIZE - handSize, bag.size());
+    }
+
+    /**
+     * Refills the player's hand, recording the positions in the bag of the tiles drawn so that the draw can be undone.
+     *
+     * @param positions The array receiving the positions, whose length is the number of tiles to draw.
+     * @return The tiles drawn.
+     */
+    Tile[] refill(int[] positions) {
+        Tile[] missingTiles = bag.draw(positions);
+        for (Tile tile : missingTiles) {
+            addToHand(tile.code());
+        }
+        return missingTiles;
+    }
+
+    /**
+     * Refills the player's hand with given tiles of the bag, as a refill that drew them would.
+     *
+     * @param tiles     The tiles to draw, which must be in the bag.
+     * @param positions The array receiving the positions in the bag of the tiles, as long as the array of tiles.
+     */
+    void refill(Tile[] tiles, int[] positions) {
+        bag.take(tiles, positions);
+        for (Tile tile : tiles) {
+            addToHand(tile.code());
+        }
+    }
+
+    /**
+     * Gets a copy of the player's hand, in order.
+     *
+     * @return An array holding the tiles of the hand.
+     */
+    Tile[] getHandSnapshot() {
+        Tile[] snapshot = new Tile[handSize];
+        for (int i = 0; i < handSize; i++) {
+            snapshot[i] = Tile.fromCode(hand[i]);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Restores the player's hand and score as they were when a snapshot was taken.
+     *
+     * @param hand  The tiles of the hand, in order.
+     * @param score The score of the player.
+     */
+    void restore(Tile[] hand, int score) {
+        handSize = 0;
+        handHash = 0;
+        for (Tile tile : hand) {
+            addToHand(tile.code());
+        }
+        this.score = score;
     }
 
     /**
@@ -66,11 +219,79 @@ public class Player implements Serializable {
      */
     public void removeTile(Tile... ts) {
         for (Tile tile : ts) {
-            tiles.remove(tile);
+            int code = tile.code();
+            for (int i = 0; i < handSize; i++) {
+                if (hand[i] == code) {
+                    removeAt(i);
+                    break;
+                }
+            }
         }
     }
 
+    /**
+     * Removes the tile at a given index of the player's hand, the following tiles moving down by one.
+     *
+     * @param index The index of the tile in the hand.
+     */
+    void removeAt(int index) {
+        int code = hand[index];
+        System.arraycopy(hand, index + 1, hand, index, handSize - index - 1);
+        handSize--;
+        handHash ^= Zobrist.handTile(code, count(code));
+    }
+
+    /**
+     * Gets the Zobrist hash of the player's hand.
+     *
+     * @return The hash of the tiles held, 0 for an empty hand.
+     */
+    long getHandHash() {
+        return handHash;
+    }
+
+    /**
+     * Adds a tile at the end of the player's hand and to the hash of the hand.
+     *
+     * @param code The code of the tile to add.
+     */
+    private void addToHand(int code) {
+        handHash ^= Zobrist.handTile(code, count(code));
+        hand[handSize++] = (byte) code;
+    }
+
     public void addScore(int value) {
         score += value;
     }
+
+    /**
+     * A read-only view of the hand, reading the tiles from their codes.
+     */
+    private class HandView extends AbstractList<Tile> implements RandomAccess {
+
+        /**
+         * Gets a tile of the hand.
+         *
+         * @param index The index of the tile.
+         * @return The tile.
+         * @throws IndexOutOfBoundsException If the index is outside the hand.
+         */
+        @Override
+        public Tile get(int index) {
+            if (index < 0 || index >= handSize) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return Tile.fromCode(hand[index]);
+        }
+
+        /**
+         * Gets the number of tiles in the hand.
+         *
+         * @return The size of the hand.
+         */
+        @Override
+        public int size() {
+            return handSize;
+        }
+    }
 }
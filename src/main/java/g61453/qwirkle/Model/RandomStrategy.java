@@ -0,0 +1,36 @@
+package g61453.qwirkle.Model;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Plays one of the legal moves at random, every move being as likely, and passes when there is none.
+ * The random numbers come from a seed, so that the same game played with the same seed gives the same moves.
+ */
+public class RandomStrategy implements Strategy {
+    private final SplittableRandom random;
+    private final MoveGenerator generator;
+
+    /**
+     * Constructs a random strategy.
+     *
+     * @param seed The seed of the random numbers.
+     */
+    public RandomStrategy(long seed) {
+        this.random = new SplittableRandom(seed);
+        this.generator = new MoveGenerator();
+    }
+
+    /**
+     * Chooses one of the legal moves of the current player at random.
+     *
+     * @param game The game, which is not over.
+     * @return A legal move, or null if there is none.
+     */
+    @Override
+    public Move choose(Game game) {
+        List<Move> moves = game.getLegalMoves(generator);
+        if (moves.isEmpty()) return null;
+        return moves.get(random.nextInt(moves.size()));
+    }
+}
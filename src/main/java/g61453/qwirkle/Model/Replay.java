@@ -0,0 +1,152 @@
+package g61453.qwirkle.Model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Rebuilds any turn of a recorded game, so that a reviewer can go to a turn of a past game and step through it
+ * forward and backward. The whole game is played once when the replay is created, keeping the position of each turn
+ * in the record and a save of the game, in the format of SaveFormat, every given number of turns, 8 by default, a
+ * save taking a few hundred bytes. Going to a turn then starts from the game as it is when the turn is close enough
+ * after it, undoes turns when it is close enough before it, and otherwise reads the last save taken before the turn,
+ * so that reaching any turn plays or undoes at most as many turns as there are between two saves.
+ * When the checksum of the record matches, its turns are known to follow the rules, since they were checked when
+ * they were played, and their tiles are placed on the grid without being checked again. The turns of a record whose
+ * checksum does not match are checked against the rules.
+ */
+public final class Replay {
+    private static final int DEFAULT_INTERVAL = 8;
+    private final GameRecord record;
+    private final boolean trusted;
+    private final int interval;
+    private final int[] turnStarts;
+    private final ByteBuffer[] checkpoints;
+    private Game game;
+    private int turn;
+
+    /**
+     * Constructs the replay of a recorded game, with a save every 8 turns, and goes to its last turn.
+     *
+     * @param record The record of the game, which must not be bound to another game afterwards.
+     * @throws QwirkleException If the record is damaged.
+     */
+    public Replay(GameRecord record) {
+        this(record, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Constructs the replay of a recorded game and goes to its last turn.
+     *
+     * @param record   The record of the game, which must not be bound to another game afterwards.
+     * @param interval The number of turns between two saves, the most turns played or undone to reach a turn.
+     * @throws QwirkleException If the number of turns is not strictly positive, or if the record is damaged.
+     */
+    public Replay(GameRecord record, int interval) {
+        if (interval <= 0) {
+            throw new QwirkleException("The number of turns between two saves must be strictly positive.");
+        }
+        this.record = record;
+        this.trusted = record.isIntact();
+        this.interval = interval;
+        int count = record.getTurnCount();
+        this.turnStarts = new int[count + 1];
+        this.checkpoints = new ByteBuffer[count / interval + 1];
+        try {
+            game = record.deal();
+            turnStarts[0] = record.turns();
+            for (turn = 0; turn < count; turn++) {
+                if (turn % interval == 0) checkpoints[turn / interval] = SaveFormat.encode(game);
+                turnStarts[turn + 1] = record.replayTurn(game, turnStarts[turn], !trusted);
+            }
+            if (count % interval == 0) checkpoints[count / interval] = SaveFormat.encode(game);
+            record.checkScores(game);
+        } catch (QwirkleException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw GameRecord.damaged();
+        }
+    }
+
+    /**
+     * Gets the game as it is at the current turn. The game must not be played, since the replay goes on from it.
+     *
+     * @return The game.
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Gets the current turn, that is the number of turns played.
+     *
+     * @return The current turn, between 0, before the first turn, and the number of turns of the game.
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * Gets the number of turns of the game, the passes included.
+     *
+     * @return The number of turns.
+     */
+    public int getTurnCount() {
+        return turnStarts.length - 1;
+    }
+
+    /**
+     * Checks whether the tiles of the record are placed without being checked, its checksum matching.
+     *
+     * @return True if the turns are not checked against the rules, false otherwise.
+     */
+    public boolean isTrusted() {
+        return trusted;
+    }
+
+    /**
+     * Plays the next turn.
+     *
+     * @return True if a turn was played, false if the game is at its last turn.
+     */
+    public boolean next() {
+        if (turn == getTurnCount()) return false;
+        seek(turn + 1);
+        return true;
+    }
+
+    /**
+     * Goes back to the previous turn.
+     *
+     * @return True if a turn was undone, false if the game is before its first turn.
+     */
+    public boolean previous() {
+        if (turn == 0) return false;
+        seek(turn - 1);
+        return true;
+    }
+
+    /**
+     * Goes to a turn of the game.
+     *
+     * @param target The turn, between 0, before the first turn, and the number of turns of the game.
+     * @throws QwirkleException If the game has no such turn.
+     */
+    public void seek(int target) {
+        if (target < 0 || target > getTurnCount()) {
+            throw new QwirkleException("The game has no turn " + target + ".");
+        }
+        int undoable = game.getTurns().size();
+        if (target < turn && turn - target <= Math.min(undoable, interval)) {
+            while (turn > target) {
+                game.undo();
+                turn--;
+            }
+            return;
+        }
+        if (target < turn || target - turn > interval) {
+            turn = target / interval * interval;
+            game = SaveFormat.decode(checkpoints[target / interval].duplicate());
+        }
+        while (turn < target) {
+            record.replayTurn(game, turnStarts[turn], !trusted);
+            turn++;
+        }
+    }
+}
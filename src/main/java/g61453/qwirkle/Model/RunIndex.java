@@ -0,0 +1,290 @@
+package g61453.qwirkle.Model;
+
+import java.io.Serializable;
+
+/**
+ * Keeps, for every maximal run of adjacent tiles along a row or a column, its length and the sets of colors and
+ * shapes it contains. A run is described by an int packing its length and two bit masks, and the description is
+ * stored at both ends of the run, so that the run next to an empty cell is found with a single lookup.
+ * The descriptions are updated when a tile is placed, merging the runs it joins.
+ */
+class RunIndex implements Serializable {
+    private static final int LENGTH_BITS = 4;
+    private static final int MASK_BITS = 6;
+    private static final int LENGTH_MASK = (1 << LENGTH_BITS) - 1;
+    private static final int SET_MASK = (1 << MASK_BITS) - 1;
+    private static final int MAX_TILES_PER_LINE = 6;
+    private static final long ALL_TILES = (1L << Tile.TYPES) - 1;
+    private static final long TILES_OF_FIRST_SHAPE = 0x041041041L;
+    private final CellMap runs;
+
+    /**
+     * Constructs an empty index.
+     */
+    RunIndex() {
+        runs = new CellMap();
+    }
+
+    /**
+     * Constructs a copy of an index.
+     *
+     * @param other The index to copy.
+     */
+    private RunIndex(RunIndex other) {
+        runs = other.runs.copy();
+    }
+
+    /**
+     * Creates a copy of the index, describing the same runs.
+     *
+     * @return The copy of the index.
+     */
+    RunIndex copy() {
+        return new RunIndex(this);
+    }
+
+    /**
+     * Gets the run ending next to a cell in a given direction.
+     *
+     * @param row       The row of the cell, which must be empty.
+     * @param col       The column of the cell, which must be empty.
+     * @param direction The direction in which the run is looked for.
+     * @return The description of the run, or 0 if the neighbouring cell is empty.
+     */
+    int runNextTo(int row, int col, Direction direction) {
+        long key = CellMap.key(row + direction.getDeltaRow(), col + direction.getDeltaCol());
+        return halfOf(runs.get(key), isVertical(direction));
+    }
+
+    /**
+     * Records a tile placed in an empty cell, merging the runs it joins on both axes.
+     *
+     * @param row  The row of the cell.
+     * @param col  The column of the cell.
+     * @param code The code of the tile.
+     */
+    void place(int row, int col, int code) {
+        placeOnAxis(row, col, code, Direction.LEFT);
+        placeOnAxis(row, col, code, Direction.UP);
+    }
+
+    /**
+     * Forgets the last tile placed, restoring the runs it had joined.
+     *
+     * @param row   The row of the cell, emptied again.
+     * @param col   The column of the cell, emptied again.
+     * @param up    The description of the run above the cell before the tile was placed.
+     * @param down  The description of the run below the cell before the tile was placed.
+     * @param left  The description of the run on the left of the cell before the tile was placed.
+     * @param right The description of the run on the right of the cell before the tile was placed.
+     */
+    void remove(int row, int col, int up, int down, int left, int right) {
+        runs.remove(CellMap.key(row, col));
+        restoreRun(row, col, left, Direction.LEFT);
+        restoreRun(row, col, right, Direction.RIGHT);
+        restoreRun(row, col, up, Direction.UP);
+        restoreRun(row, col, down, Direction.DOWN);
+    }
+
+    /**
+     * Describes a run made of a single tile.
+     *
+     * @param code The code of the tile.
+     * @return The description of the run.
+     */
+    static int of(int code) {
+        return 1 | (1 << (LENGTH_BITS + Tile.colorOf(code))) | (1 << (LENGTH_BITS + MASK_BITS + Tile.shapeOf(code)));
+    }
+
+    /**
+     * Describes the line made of two runs put end to end.
+     *
+     * @param run1 The description of the first run, possibly 0.
+     * @param run2 The description of the second run, possibly 0.
+     * @return The description of the line, whose length must fit in the description.
+     */
+    static int join(int run1, int run2) {
+        return (length(run1) + length(run2)) | ((run1 | run2) & ~LENGTH_MASK);
+    }
+
+    /**
+     * Gets the number of tiles of a run.
+     *
+     * @param run The description of the run.
+     * @return The length of the run.
+     */
+    static int length(int run) {
+        return run & LENGTH_MASK;
+    }
+
+    /**
+     * Gets the set of colors of a run.
+     *
+     * @param run The description of the run.
+     * @return A mask holding the bit of the ordinal of each color.
+     */
+    static int colors(int run) {
+        return (run >>> LENGTH_BITS) & SET_MASK;
+    }
+
+    /**
+     * Gets the set of shapes of a run.
+     *
+     * @param run The description of the run.
+     * @return A mask holding the bit of the ordinal of each shape.
+     */
+    static int shapes(int run) {
+        return (run >>> (LENGTH_BITS + MASK_BITS)) & SET_MASK;
+    }
+
+    /**
+     * Checks whether a run of at least two tiles is built on a common color.
+     *
+     * @param run The description of the run.
+     * @return True if every tile of the run has the same color.
+     */
+    static boolean isColorBased(int run) {
+        return length(run) > 1 && Integer.bitCount(colors(run)) == 1;
+    }
+
+    /**
+     * Checks whether a run of at least two tiles is built on a common shape.
+     *
+     * @param run The description of the run.
+     * @return True if every tile of the run has the same shape.
+     */
+    static boolean isShapeBased(int run) {
+        return length(run) > 1 && Integer.bitCount(shapes(run)) == 1;
+    }
+
+    /**
+     * Checks whether tiles form a valid line: at most six tiles sharing either their color or their shape,
+     * without duplicate.
+     *
+     * @param length The number of tiles.
+     * @param colors The mask of their colors.
+     * @param shapes The mask of their shapes.
+     * @return True if the line is valid, false otherwise.
+     */
+    static boolean isValid(int length, int colors, int shapes) {
+        if (length == 0 || length > MAX_TILES_PER_LINE) return false;
+        int colorCount = Integer.bitCount(colors);
+        int shapeCount = Integer.bitCount(shapes);
+        return (colorCount == 1 && shapeCount == length) || (shapeCount == 1 && colorCount == length);
+    }
+
+    /**
+     * Checks whether a run describes a valid line.
+     *
+     * @param run The description of the run.
+     * @return True if the line is valid, false otherwise.
+     */
+    static boolean isValid(int run) {
+        return isValid(length(run), colors(run), shapes(run));
+    }
+
+    /**
+     * Gets the tiles that can be put between two runs so that the three of them form a valid line.
+     * Tiles are represented in a mask holding the bit code - 1 of each tile.
+     *
+     * @param run The description of the two runs joined, possibly 0 when the cell has no neighbour on the axis.
+     * @return The mask of the tiles fitting between the runs.
+     */
+    static long fittingTiles(int run) {
+        int length = length(run);
+        if (length == 0) return ALL_TILES;
+        if (length >= MAX_TILES_PER_LINE) return 0;
+        int colors = colors(run);
+        int shapes = shapes(run);
+        int colorCount = Integer.bitCount(colors);
+        int shapeCount = Integer.bitCount(shapes);
+        long fitting = 0;
+        if (colorCount == 1 && shapeCount == length) {
+            fitting |= (long) (~shapes & SET_MASK) << (MASK_BITS * Integer.numberOfTrailingZeros(colors));
+        }
+        if (shapeCount == 1 && colorCount == length) {
+            long ofShape = TILES_OF_FIRST_SHAPE << Integer.numberOfTrailingZeros(shapes);
+            for (int color = 0; color < MASK_BITS; color++) {
+                if ((colors & (1 << color)) != 0) ofShape &= ~((long) SET_MASK << (MASK_BITS * color));
+            }
+            fitting |= ofShape;
+        }
+        return fitting;
+    }
+
+    /**
+     * Merges a new tile with the runs on both sides of its cell along an axis, and stores the merged run at its ends.
+     *
+     * @param row       The row of the cell.
+     * @param col       The column of the cell.
+     * @param code      The code of the tile.
+     * @param direction The direction towards the beginning of the axis, LEFT or UP.
+     */
+    private void placeOnAxis(int row, int col, int code, Direction direction) {
+        Direction opposite = direction.opposite();
+        int before = runNextTo(row, col, direction);
+        int after = runNextTo(row, col, opposite);
+        int merged = join(join(before, of(code)), after);
+        boolean vertical = isVertical(direction);
+        store(row, col, merged, vertical);
+        store(row + length(before) * direction.getDeltaRow(), col + length(before) * direction.getDeltaCol(),
+                merged, vertical);
+        store(row + length(after) * opposite.getDeltaRow(), col + length(after) * opposite.getDeltaCol(),
+                merged, vertical);
+    }
+
+    /**
+     * Stores again the description of a run at both of its ends, the run starting next to a cell.
+     *
+     * @param row       The row of the cell.
+     * @param col       The column of the cell.
+     * @param run       The description of the run, possibly 0.
+     * @param direction The direction in which the run goes from the cell.
+     */
+    private void restoreRun(int row, int col, int run, Direction direction) {
+        if (run == 0) return;
+        boolean vertical = isVertical(direction);
+        store(row + direction.getDeltaRow(), col + direction.getDeltaCol(), run, vertical);
+        store(row + length(run) * direction.getDeltaRow(), col + length(run) * direction.getDeltaCol(), run, vertical);
+    }
+
+    /**
+     * Stores the description of a run in a cell, keeping the description of the other axis.
+     *
+     * @param row      The row of the cell.
+     * @param col      The column of the cell.
+     * @param run      The description of the run.
+     * @param vertical True for the run along the column, false for the run along the row.
+     */
+    private void store(int row, int col, int run, boolean vertical) {
+        long key = CellMap.key(row, col);
+        long both = runs.get(key);
+        if (vertical) {
+            both = (both & 0xFFFFFFFFL) | ((long) run << 32);
+        } else {
+            both = (both & 0xFFFFFFFF00000000L) | (run & 0xFFFFFFFFL);
+        }
+        runs.put(key, both);
+    }
+
+    /**
+     * Extracts the description of the run along one axis from the value stored for a cell.
+     *
+     * @param both     The value stored for the cell.
+     * @param vertical True for the run along the column, false for the run along the row.
+     * @return The description of the run.
+     */
+    private static int halfOf(long both, boolean vertical) {
+        return vertical ? (int) (both >>> 32) : (int) both;
+    }
+
+    /**
+     * Checks whether a direction follows a column.
+     *
+     * @param direction The direction.
+     * @return True for UP and DOWN, false for LEFT and RIGHT.
+     */
+    private static boolean isVertical(Direction direction) {
+        return direction == Direction.UP || direction == Direction.DOWN;
+    }
+}
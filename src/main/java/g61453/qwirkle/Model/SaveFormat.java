@@ -0,0 +1,230 @@
+package g61453.qwirkle.Model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Writes and reads games in a compact binary format, a save taking a few hundred bytes.
+ * A save holds, in order: the magic number and the version of the format, the index of the current player and the
+ * number of consecutive passes, then for each player their name, their score and the codes of their hand, then the
+ * state of the random numbers of the bag and the codes of the tiles it holds, in order, then the cell and the code of
+ * each tile of the grid, in the order they were placed, and finally a CRC32C checksum of everything before it.
+ * The grid is rebuilt by placing its tiles again without checking them, since they were checked when they were
+ * played, but a save whose checksum matches is still checked to describe a game: each tile code, count and index
+ * must be in range, and the tiles of the hands, the bag and the grid must not hold more copies of a tile than the
+ * game has. The turns are not saved, so they cannot be undone once the game is read.
+ */
+final class SaveFormat {
+    static final int MAGIC = 0x51574B4C;
+    static final short VERSION = 1;
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+    private static final int ALL_TILES = Tile.TYPES * Bag.COPIES_PER_TILE;
+    private static final int MAX_PLAYERS = ALL_TILES / Player.HAND_SIZE;
+    private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + 3;
+    private static final int PLAYER_SIZE = Short.BYTES + Integer.BYTES + 1 + Player.HAND_SIZE;
+    private static final int FOOTER_SIZE = Long.BYTES + 1 + ALL_TILES + 1 + 3 * ALL_TILES + Integer.BYTES;
+    private static final int MAX_SIZE = HEADER_SIZE + MAX_PLAYERS * (PLAYER_SIZE + MAX_NAME_BYTES) + FOOTER_SIZE;
+
+    private SaveFormat() {
+    }
+
+    /**
+     * Encodes a game.
+     *
+     * @param game The game to encode.
+     * @return A buffer holding the save, ready to be read, sized to the game.
+     * @throws QwirkleException If the grid of the game is unbounded, its coordinates not fitting in a byte, or if the
+     *                          name of a player takes more than 65535 bytes.
+     */
+    static ByteBuffer encode(Game game) {
+        if (!game.getGridModel().isBounded()) {
+            throw new QwirkleException("Only a game on a grid of 91 rows and 91 columns can be saved.");
+        }
+        byte[][] names = new byte[game.getPlayerCount()][];
+        int size = HEADER_SIZE + names.length * PLAYER_SIZE + FOOTER_SIZE;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = game.getPlayer(i).getName().getBytes(StandardCharsets.UTF_8);
+            if (names[i].length > MAX_NAME_BYTES) {
+                throw new QwirkleException("The name of a player is too long to be saved.");
+            }
+            size += names[i].length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putShort(VERSION);
+        buffer.put((byte) game.getCurrentPlayerIndex()).put((byte) game.getCountPass());
+        buffer.put((byte) game.getPlayerCount());
+        for (int i = 0; i < game.getPlayerCount(); i++) {
+            Player player = game.getPlayer(i);
+            buffer.putShort((short) names[i].length).put(names[i]);
+            buffer.putInt(player.getScore());
+            int handSize = player.getHand().size();
+            buffer.put((byte) handSize);
+            for (int j = 0; j < handSize; j++) {
+                buffer.put((byte) player.codeAt(j));
+            }
+        }
+        Bag bag = game.getBag();
+        buffer.putLong(bag.getSeed()).put((byte) bag.size());
+        for (int i = 0; i < bag.size(); i++) {
+            buffer.put((byte) bag.codeAt(i));
+        }
+        Grid grid = game.getGridModel();
+        buffer.put((byte) grid.getTileCount());
+        for (int i = 0; i < grid.getTileCount(); i++) {
+            long cell = grid.placedCell(i);
+            int row = CellMap.rowOf(cell);
+            int col = CellMap.colOf(cell);
+            buffer.put((byte) row).put((byte) col).put((byte) grid.get(row, col).code());
+        }
+        buffer.putInt(checksum(buffer, 0, buffer.position()));
+        return buffer.flip();
+    }
+
+    /**
+     * Decodes a game.
+     *
+     * @param buffer The buffer holding the save, from its position to its limit.
+     * @return The game decoded.
+     * @throws QwirkleException If the buffer does not hold a valid save.
+     */
+    static Game decode(ByteBuffer buffer) {
+        int end = buffer.limit() - Integer.BYTES;
+        if (end < buffer.position() || checksum(buffer, buffer.position(), end) != buffer.getInt(end)) {
+            throw damaged();
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                throw new QwirkleException("The file is not a save of this version of the game.");
+            }
+            int indexCurrPlayer = Byte.toUnsignedInt(buffer.get());
+            int countPass = Byte.toUnsignedInt(buffer.get());
+            int playerCount = Byte.toUnsignedInt(buffer.get());
+            if (playerCount == 0 || playerCount > MAX_PLAYERS || indexCurrPlayer >= playerCount
+                    || countPass > playerCount) {
+                throw damaged();
+            }
+            int[] left = new int[Tile.TYPES + 1];
+            Arrays.fill(left, 1, left.length, Bag.COPIES_PER_TILE);
+            Player[] players = new Player[playerCount];
+            Tile[][] hands = new Tile[playerCount][];
+            String[] names = new String[playerCount];
+            int[] scores = new int[playerCount];
+            for (int i = 0; i < playerCount; i++) {
+                byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+                buffer.get(name);
+                names[i] = new String(name, StandardCharsets.UTF_8);
+                scores[i] = buffer.getInt();
+                int handSize = Byte.toUnsignedInt(buffer.get());
+                if (handSize > Player.HAND_SIZE) throw damaged();
+                hands[i] = new Tile[handSize];
+                for (int j = 0; j < handSize; j++) {
+                    hands[i][j] = readTile(buffer, left);
+                }
+            }
+            long seed = buffer.getLong();
+            byte[] tiles = new byte[Byte.toUnsignedInt(buffer.get())];
+            if (tiles.length > ALL_TILES) throw damaged();
+            for (int i = 0; i < tiles.length; i++) {
+                tiles[i] = (byte) readTile(buffer, left).code();
+            }
+            Bag bag = new Bag(tiles, tiles.length, seed);
+            for (int i = 0; i < playerCount; i++) {
+                players[i] = new Player(names[i], bag, hands[i], scores[i]);
+            }
+            Grid grid = new Grid();
+            int tileCount = Byte.toUnsignedInt(buffer.get());
+            for (int i = 0; i < tileCount; i++) {
+                int row = Byte.toUnsignedInt(buffer.get());
+                int col = Byte.toUnsignedInt(buffer.get());
+                if (!grid.isFree(row, col)) throw damaged();
+                grid.restoreTile(row, col, readTile(buffer, left));
+            }
+            if (buffer.position() != end) throw damaged();
+            return new Game(players, bag, grid, indexCurrPlayer, countPass);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw damaged();
+        }
+    }
+
+    /**
+     * Writes a game to a file, replacing it if it exists.
+     *
+     * @param game The game to write.
+     * @param file The path of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    static void write(Game game, Path file) throws IOException {
+        ByteBuffer buffer = encode(game);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads a game from a file.
+     *
+     * @param file The path of the file.
+     * @return The game read.
+     * @throws IOException      If the file cannot be read.
+     * @throws QwirkleException If the file does not hold a valid save.
+     */
+    static Game read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > MAX_SIZE) {
+                throw new QwirkleException("The file is not a save of this version of the game.");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) break;
+            }
+            return decode(buffer.flip());
+        }
+    }
+
+    /**
+     * Reads the code of a tile, counting the copies of the tile read so far.
+     *
+     * @param buffer The buffer to read from.
+     * @param left   The number of copies of each tile not read yet, by code.
+     * @return The tile.
+     * @throws QwirkleException If the code is not the one of a tile, or if every copy of the tile was already read.
+     */
+    private static Tile readTile(ByteBuffer buffer, int[] left) {
+        int code = buffer.get();
+        if (code < 1 || code > Tile.TYPES || --left[code] < 0) throw damaged();
+        return Tile.fromCode(code);
+    }
+
+    /**
+     * Creates the exception thrown for a damaged save.
+     *
+     * @return The exception.
+     */
+    private static QwirkleException damaged() {
+        return new QwirkleException("The save is damaged.");
+    }
+
+    /**
+     * Computes the CRC32C checksum of a part of a buffer, without moving its position.
+     *
+     * @param buffer The buffer.
+     * @param from   The index of the first byte.
+     * @param to     The index following the last byte.
+     * @return The checksum.
+     */
+    private static int checksum(ByteBuffer buffer, int from, int to) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(from).limit(to));
+        return (int) crc.getValue();
+    }
+}
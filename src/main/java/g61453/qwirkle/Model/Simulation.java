@@ -0,0 +1,117 @@
+package g61453.qwirkle.Model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Plays games between strategies without any input or output, on a pool of threads, and reports their results.
+ * Each game gets a seed derived from the seed of the simulation and from its number, from which its bag and the
+ * strategies of its players are seeded. The games played, and so the report, are the same whatever the number of
+ * threads.
+ * A game is stopped, unfinished, after too many turns, or once every player passed in a row while the bag still holds
+ * tiles, since the position can then no longer change.
+ */
+public class Simulation {
+    private static final int MAX_TURNS = 1000;
+    private final List<LongFunction<Strategy>> seats;
+    private final long games;
+    private final int threads;
+    private final long seed;
+
+    /**
+     * Constructs a simulation.
+     *
+     * @param seats   For each seat, the function creating the strategy of its player from a seed.
+     * @param games   The number of games to play.
+     * @param threads The number of threads playing the games.
+     * @param seed    The seed of the simulation.
+     * @throws QwirkleException If there are fewer than two seats, or if the number of threads is not strictly positive.
+     */
+    public Simulation(List<LongFunction<Strategy>> seats, long games, int threads, long seed) {
+        if (seats.size() < 2) {
+            throw new QwirkleException("A game needs at least two players.");
+        }
+        if (threads <= 0) {
+            throw new QwirkleException("The number of threads must be strictly positive.");
+        }
+        this.seats = List.copyOf(seats);
+        this.games = games;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    /**
+     * Plays the games of the simulation, waiting for the last one to be over.
+     *
+     * @return The report of the games played.
+     * @throws QwirkleException If a game fails, or if the thread is interrupted while waiting.
+     */
+    public SimulationReport run() {
+        long start = System.nanoTime();
+        AtomicLong next = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<SimulationReport>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(pool.submit(() -> work(next)));
+            }
+            SimulationReport report = new SimulationReport(seats.size());
+            for (Future<SimulationReport> worker : workers) {
+                report.merge(worker.get());
+            }
+            report.setElapsedNanos(System.nanoTime() - start);
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QwirkleException("The simulation was interrupted.");
+        } catch (ExecutionException e) {
+            throw new QwirkleException("A game of the simulation failed: " + e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays games until every game of the simulation is taken.
+     *
+     * @param next The number of the next game to play, shared by the workers.
+     * @return The report of the games played by this worker.
+     */
+    private SimulationReport work(AtomicLong next) {
+        SimulationReport report = new SimulationReport(seats.size());
+        List<String> names = new ArrayList<>(seats.size());
+        for (int i = 0; i < seats.size(); i++) {
+            names.add("Player " + (i + 1));
+        }
+        Strategy[] strategies = new Strategy[seats.size()];
+        for (long index = next.getAndIncrement(); index < games; index = next.getAndIncrement()) {
+            SplittableRandom random = new SplittableRandom(seed + index);
+            Game game = new Game(names, random.nextLong());
+            for (int i = 0; i < strategies.length; i++) {
+                strategies[i] = seats.get(i).apply(random.nextLong());
+            }
+            int turns = 0;
+            int passes = 0;
+            while (!game.isOver() && turns < MAX_TURNS && passes < strategies.length) {
+                Move move = strategies[game.getCurrentPlayerIndex()].choose(game);
+                if (move == null) {
+                    game.pass();
+                    passes++;
+                } else {
+                    game.apply(move);
+                    passes = 0;
+                }
+                turns++;
+            }
+            report.record(game, turns, game.isOver());
+        }
+        return report;
+    }
+}
@@ -0,0 +1,219 @@
+package g61453.qwirkle.Model;
+
+/**
+ * Gathers the results of the games played by a simulation: the number of turns of each game, the distribution of the
+ * final scores and the wins of each seat.
+ * Each worker of a simulation fills a report of its own, the reports being merged once the games are over, so that a
+ * report is never shared between threads while it is filled.
+ */
+public class SimulationReport {
+    private static final int MAX_SCORE = 1000;
+    private final long[] wins;
+    private final long[] scores;
+    private long games;
+    private long unfinishedGames;
+    private long turns;
+    private int minTurns;
+    private int maxTurns;
+    private long scoreSum;
+    private long scoreSquareSum;
+    private long winningScoreSum;
+    private long elapsedNanos;
+
+    /**
+     * Constructs an empty report.
+     *
+     * @param playerCount The number of players of each game.
+     */
+    SimulationReport(int playerCount) {
+        this.wins = new long[playerCount];
+        this.scores = new long[MAX_SCORE + 1];
+        this.minTurns = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Records the result of a game.
+     *
+     * @param game     The game, once played.
+     * @param turns    The number of turns played.
+     * @param finished True if the game is over, false if it was stopped before.
+     */
+    void record(Game game, int turns, boolean finished) {
+        games++;
+        if (!finished) unfinishedGames++;
+        this.turns += turns;
+        minTurns = Math.min(minTurns, turns);
+        maxTurns = Math.max(maxTurns, turns);
+        int winner = 0;
+        for (int i = 0; i < game.getPlayerCount(); i++) {
+            int score = game.getPlayerScore(i);
+            scores[Math.min(score, MAX_SCORE)]++;
+            scoreSum += score;
+            scoreSquareSum += (long) score * score;
+            if (score > game.getPlayerScore(winner)) winner = i;
+        }
+        wins[winner]++;
+        winningScoreSum += game.getPlayerScore(winner);
+    }
+
+    /**
+     * Adds the results of another report to this one.
+     *
+     * @param other The report to add, for games with the same number of players.
+     */
+    void merge(SimulationReport other) {
+        for (int i = 0; i < wins.length; i++) {
+            wins[i] += other.wins[i];
+        }
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] += other.scores[i];
+        }
+        games += other.games;
+        unfinishedGames += other.unfinishedGames;
+        turns += other.turns;
+        minTurns = Math.min(minTurns, other.minTurns);
+        maxTurns = Math.max(maxTurns, other.maxTurns);
+        scoreSum += other.scoreSum;
+        scoreSquareSum += other.scoreSquareSum;
+        winningScoreSum += other.winningScoreSum;
+    }
+
+    /**
+     * Sets the time taken by the simulation.
+     *
+     * @param elapsedNanos The time taken, in nanoseconds.
+     */
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the number of players of each game.
+     *
+     * @return The number of players.
+     */
+    public int getPlayerCount() {
+        return wins.length;
+    }
+
+    /**
+     * Gets the number of games played.
+     *
+     * @return The number of games.
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Gets the number of games stopped before they were over, after too many turns or once no player could move.
+     *
+     * @return The number of unfinished games.
+     */
+    public long getUnfinishedGames() {
+        return unfinishedGames;
+    }
+
+    /**
+     * Gets the time taken by the simulation.
+     *
+     * @return The time taken, in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the number of games played per second.
+     *
+     * @return The throughput of the simulation, 0 if no time was recorded.
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Gets the mean number of turns of a game, passes included.
+     *
+     * @return The mean number of turns, 0 if no game was played.
+     */
+    public double getMeanTurns() {
+        return games == 0 ? 0 : (double) turns / games;
+    }
+
+    /**
+     * Gets the smallest number of turns of a game.
+     *
+     * @return The smallest number of turns, 0 if no game was played.
+     */
+    public int getMinTurns() {
+        return games == 0 ? 0 : minTurns;
+    }
+
+    /**
+     * Gets the largest number of turns of a game.
+     *
+     * @return The largest number of turns.
+     */
+    public int getMaxTurns() {
+        return maxTurns;
+    }
+
+    /**
+     * Gets the mean final score of a player.
+     *
+     * @return The mean score, 0 if no game was played.
+     */
+    public double getMeanScore() {
+        long count = games * wins.length;
+        return count == 0 ? 0 : (double) scoreSum / count;
+    }
+
+    /**
+     * Gets the standard deviation of the final scores of the players.
+     *
+     * @return The standard deviation of the scores, 0 if no game was played.
+     */
+    public double getScoreStandardDeviation() {
+        long count = games * wins.length;
+        if (count == 0) return 0;
+        double mean = (double) scoreSum / count;
+        return Math.sqrt(Math.max(0, (double) scoreSquareSum / count - mean * mean));
+    }
+
+    /**
+     * Gets a percentile of the final scores of the players. Scores above 1000 are counted as 1000.
+     *
+     * @param percent The percentage of scores lower than or equal to the percentile, between 0 and 100.
+     * @return The percentile, 0 if no game was played.
+     */
+    public int getScorePercentile(double percent) {
+        long count = games * wins.length;
+        long rank = (long) Math.ceil(count * percent / 100);
+        long seen = 0;
+        for (int score = 0; score < scores.length; score++) {
+            seen += scores[score];
+            if (seen >= Math.max(rank, 1)) return score;
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the mean score of the winner of a game.
+     *
+     * @return The mean winning score, 0 if no game was played.
+     */
+    public double getMeanWinningScore() {
+        return games == 0 ? 0 : (double) winningScoreSum / games;
+    }
+
+    /**
+     * Gets the number of games won by the player sitting at a given seat, a tie going to the first player.
+     *
+     * @param seat The index of the player.
+     * @return The number of games won.
+     */
+    public long getWins(int seat) {
+        return wins[seat];
+    }
+}
@@ -0,0 +1,64 @@
+package g61453.qwirkle.Model;
+
+/**
+ * An unbounded board storing only its occupied cells, so that its memory grows with the tiles placed
+ * rather than with the area of the board.
+ */
+class SparseBoard implements Board {
+    private final CellMap cells;
+
+    /**
+     * Constructs an empty board.
+     */
+    SparseBoard() {
+        this.cells = new CellMap();
+    }
+
+    /**
+     * Constructs a copy of a board.
+     *
+     * @param other The board to copy.
+     */
+    private SparseBoard(SparseBoard other) {
+        this.cells = other.cells.copy();
+    }
+
+    /**
+     * Checks whether a cell exists, which is the case of every cell whose neighbours are also addressable.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return True if the cell exists, false otherwise.
+     */
+    @Override
+    public boolean contains(int row, int col) {
+        return row > Integer.MIN_VALUE && row < Integer.MAX_VALUE && col > Integer.MIN_VALUE && col < Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int get(int row, int col) {
+        return (int) cells.get(CellMap.key(row, col));
+    }
+
+    /**
+     * Stores the code of a tile in a cell, an empty cell being removed from the map, so that the tiles removed by an
+     * undo or a search leave no entry behind.
+     *
+     * @param row  The row of the cell.
+     * @param col  The column of the cell.
+     * @param code The code of the tile, or Tile.EMPTY.
+     */
+    @Override
+    public void set(int row, int col, int code) {
+        if (code == Tile.EMPTY) {
+            cells.remove(CellMap.key(row, col));
+        } else {
+            cells.put(CellMap.key(row, col), code);
+        }
+    }
+
+    @Override
+    public Board copy() {
+        return new SparseBoard(this);
+    }
+}
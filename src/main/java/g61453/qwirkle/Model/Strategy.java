@@ -0,0 +1,29 @@
+package g61453.qwirkle.Model;
+
+/**
+ * Chooses the moves of a player controlled by the computer.
+ * A strategy is used by one thread at a time, so that it can keep working buffers from one move to the next.
+ */
+public interface Strategy {
+
+    /**
+     * Chooses the move of the current player of a game. The game must be left as it was.
+     *
+     * @param game The game, which is not over.
+     * @return The legal move to play, or null to pass.
+     */
+    Move choose(Game game);
+
+    /**
+     * Chooses the move of the current player of a game before a given deadline rather than within the time budget of
+     * the strategy, so that several searches can share the time left to answer. A strategy taking no time to choose
+     * ignores the deadline.
+     *
+     * @param game     The game, which is not over.
+     * @param deadline The value of System.nanoTime by which the move is chosen.
+     * @return The legal move to play, or null to pass.
+     */
+    default Move choose(Game game, long deadline) {
+        return choose(game);
+    }
+}
@@ -5,7 +5,69 @@ import java.io.Serializable;
 * Tile represent a tile of the Qwirkle game
  */
 public record Tile(Color color, Shape shape) implements Serializable {
-    public boolean equals(Object obj){
-        return this == obj;
+    /**
+     * The code of an empty cell.
+     */
+    static final int EMPTY = 0;
+    /**
+     * The number of different tiles, one for each combination of a color and a shape.
+     */
+    static final int TYPES = Color.values().length * Shape.values().length;
+    private static final int SHAPE_COUNT = Shape.values().length;
+    private static final Tile[] BY_CODE = createTilesByCode();
+
+    /**
+     * Gets the compact code of this tile, between 1 and TYPES, 0 being reserved for an empty cell.
+     *
+     * @return The code of this tile.
+     */
+    int code() {
+        return color.ordinal() * SHAPE_COUNT + shape.ordinal() + 1;
+    }
+
+    /**
+     * Gets the tile represented by a compact code.
+     *
+     * @param code The code of the tile.
+     * @return The tile corresponding to the code, or null if the code represents an empty cell.
+     */
+    static Tile fromCode(int code) {
+        return BY_CODE[code];
+    }
+
+    /**
+     * Gets the ordinal of the color of the tile represented by a compact code.
+     *
+     * @param code The code of the tile, which must not be Tile.EMPTY.
+     * @return The ordinal of the color.
+     */
+    static int colorOf(int code) {
+        return (code - 1) / SHAPE_COUNT;
+    }
+
+    /**
+     * Gets the ordinal of the shape of the tile represented by a compact code.
+     *
+     * @param code The code of the tile, which must not be Tile.EMPTY.
+     * @return The ordinal of the shape.
+     */
+    static int shapeOf(int code) {
+        return (code - 1) % SHAPE_COUNT;
+    }
+
+    /**
+     * Creates the table of shared tiles indexed by their code.
+     *
+     * @return An array containing a tile for each code, with null at the index of the empty cell.
+     */
+    private static Tile[] createTilesByCode() {
+        Tile[] tiles = new Tile[TYPES + 1];
+        for (Color color : Color.values()) {
+            for (Shape shape : Shape.values()) {
+                Tile tile = new Tile(color, shape);
+                tiles[tile.code()] = tile;
+            }
+        }
+        return tiles;
     }
 }
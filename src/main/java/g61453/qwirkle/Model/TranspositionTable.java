@@ -0,0 +1,166 @@
+package g61453.qwirkle.Model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Remembers what a search learned about the positions it met, keyed by their Zobrist hash: the depth searched, the
+ * kind of bound found, its value and the index of the best move in the order of the move generator.
+ * The table has a fixed size, given in megabytes, and lives outside the Java heap in direct buffers of at most 1 GB
+ * each, so that a table of several gigabytes neither grows the heap nor slows down the garbage collector. The memory
+ * comes from the direct memory of the JVM, whose limit is set by -XX:MaxDirectMemorySize.
+ * A position goes to the bucket given by the low bits of its hash. A bucket holds two slots: the first keeps the entry
+ * searched the deepest, the second takes any entry the first one refuses, so that recent positions are kept too.
+ * Each slot holds a packed entry and the hash xored with the entry. Threads read and write the slots without any
+ * lock: a slot written by two threads at once, or read while it is written, no longer matches its hash and is seen
+ * as empty, a search only losing what the slot held.
+ */
+class TranspositionTable {
+    static final int EXACT = 1;
+    static final int LOWER = 2;
+    static final int UPPER = 3;
+    static final int NO_MOVE = 0xFFFF;
+    private static final int LONGS_PER_BUCKET = 4;
+    private static final int BUCKET_BYTES = LONGS_PER_BUCKET * Long.BYTES;
+    private static final long CHUNK_BYTES = 1L << 30;
+    private final LongBuffer[] chunks;
+    private final long bucketMask;
+    private final int chunkBits;
+    private final long chunkMask;
+
+    /**
+     * Constructs an empty table.
+     *
+     * @param megabytes The size of the table in megabytes, rounded down to a power of two.
+     * @throws QwirkleException If the size is not strictly positive.
+     */
+    TranspositionTable(int megabytes) {
+        if (megabytes <= 0) {
+            throw new QwirkleException("The size of the transposition table must be strictly positive.");
+        }
+        long buckets = Long.highestOneBit(((long) megabytes << 20) / BUCKET_BYTES);
+        long bucketsPerChunk = Math.min(buckets, CHUNK_BYTES / BUCKET_BYTES);
+        this.bucketMask = buckets - 1;
+        this.chunkBits = Long.numberOfTrailingZeros(bucketsPerChunk);
+        this.chunkMask = bucketsPerChunk - 1;
+        this.chunks = new LongBuffer[(int) (buckets / bucketsPerChunk)];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = ByteBuffer.allocateDirect((int) (bucketsPerChunk * BUCKET_BYTES))
+                    .order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+    }
+
+    /**
+     * Looks up the entry of a position.
+     *
+     * @param hash The hash of the position.
+     * @return The packed entry, or 0 if the position is not in the table.
+     */
+    long probe(long hash) {
+        long bucket = hash & bucketMask;
+        LongBuffer chunk = chunks[(int) (bucket >>> chunkBits)];
+        int base = (int) (bucket & chunkMask) * LONGS_PER_BUCKET;
+        for (int slot = base; slot < base + LONGS_PER_BUCKET; slot += 2) {
+            long entry = chunk.get(slot + 1);
+            if (entry != 0 && (chunk.get(slot) ^ entry) == hash) return entry;
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the entry of a position, in the first slot of its bucket if that slot holds the same position or one
+     * searched less deeply, in the second slot otherwise.
+     *
+     * @param hash  The hash of the position.
+     * @param depth The depth searched, between 0 and 255.
+     * @param bound The kind of bound: EXACT, LOWER or UPPER.
+     * @param value The value found.
+     * @param move  The index of the best move, or NO_MOVE.
+     */
+    void store(long hash, int depth, int bound, int value, int move) {
+        long bucket = hash & bucketMask;
+        LongBuffer chunk = chunks[(int) (bucket >>> chunkBits)];
+        int slot = (int) (bucket & chunkMask) * LONGS_PER_BUCKET;
+        long kept = chunk.get(slot + 1);
+        if (kept != 0 && (chunk.get(slot) ^ kept) != hash && depth(kept) > depth) {
+            slot += 2;
+        }
+        long entry = pack(depth, bound, value, move);
+        chunk.put(slot, hash ^ entry);
+        chunk.put(slot + 1, entry);
+    }
+
+    /**
+     * Empties the table.
+     */
+    void clear() {
+        for (LongBuffer chunk : chunks) {
+            for (int i = 0; i < chunk.capacity(); i++) {
+                chunk.put(i, 0);
+            }
+        }
+    }
+
+    /**
+     * Gets the memory taken by the table.
+     *
+     * @return The size of the table, in bytes.
+     */
+    long sizeInBytes() {
+        return (bucketMask + 1) * BUCKET_BYTES;
+    }
+
+    /**
+     * Packs an entry into a long: the value in the high 32 bits, then the index of the move, the depth and the bound.
+     *
+     * @param depth The depth searched.
+     * @param bound The kind of bound.
+     * @param value The value found.
+     * @param move  The index of the best move.
+     * @return The packed entry, never 0.
+     */
+    static long pack(int depth, int bound, int value, int move) {
+        return ((long) value << 32) | ((long) (move & 0xFFFF) << 16) | ((depth & 0xFF) << 2) | (bound & 3);
+    }
+
+    /**
+     * Gets the depth of a packed entry.
+     *
+     * @param entry The packed entry.
+     * @return The depth searched.
+     */
+    static int depth(long entry) {
+        return (int) (entry >>> 2) & 0xFF;
+    }
+
+    /**
+     * Gets the kind of bound of a packed entry.
+     *
+     * @param entry The packed entry.
+     * @return EXACT, LOWER or UPPER.
+     */
+    static int bound(long entry) {
+        return (int) entry & 3;
+    }
+
+    /**
+     * Gets the value of a packed entry.
+     *
+     * @param entry The packed entry.
+     * @return The value found.
+     */
+    static int value(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    /**
+     * Gets the index of the best move of a packed entry.
+     *
+     * @param entry The packed entry.
+     * @return The index of the move, or NO_MOVE.
+     */
+    static int move(long entry) {
+        return (int) (entry >>> 16) & 0xFFFF;
+    }
+}
@@ -0,0 +1,149 @@
+package g61453.qwirkle.Model;
+
+import java.io.Serializable;
+
+/**
+ * Records a turn played in a game, with what is needed to revert it exactly: the player, the number of passes, the
+ * score and the hand before the turn, the number of tiles placed on the grid, the tiles drawn from the bag with
+ * the positions they were drawn from, and the state of the random numbers of the bag before the draw, so that the
+ * turn played again after being reverted draws the same tiles.
+ */
+public class Turn implements Serializable {
+    private final int playerIndex;
+    private final int previousCountPass;
+    private final int previousScore;
+    private final Tile[] previousHand;
+    private final int previousTileCount;
+    private final long previousSeed;
+    private int tilesPlaced;
+    private Tile[] drawn;
+    private int[] drawnPositions;
+    private int score;
+
+    /**
+     * Starts the record of a turn, before anything changes.
+     *
+     * @param playerIndex       The index of the player whose turn it is.
+     * @param previousCountPass The number of consecutive passes before the turn.
+     * @param previousScore     The score of the player before the turn.
+     * @param previousHand      The hand of the player before the turn.
+     * @param previousTileCount The number of tiles on the grid before the turn.
+     * @param previousSeed      The state of the random numbers of the bag before the turn.
+     */
+    Turn(int playerIndex, int previousCountPass, int previousScore, Tile[] previousHand, int previousTileCount,
+         long previousSeed) {
+        this.playerIndex = playerIndex;
+        this.previousCountPass = previousCountPass;
+        this.previousScore = previousScore;
+        this.previousHand = previousHand;
+        this.previousTileCount = previousTileCount;
+        this.previousSeed = previousSeed;
+        this.drawn = new Tile[0];
+        this.drawnPositions = new int[0];
+    }
+
+    /**
+     * Completes the record once the turn is played.
+     *
+     * @param tileCount      The number of tiles on the grid after the turn.
+     * @param drawn          The tiles drawn from the bag.
+     * @param drawnPositions The positions in the bag from which the tiles were drawn.
+     * @param score          The points won during the turn.
+     */
+    void complete(int tileCount, Tile[] drawn, int[] drawnPositions, int score) {
+        this.tilesPlaced = tileCount - previousTileCount;
+        this.drawn = drawn;
+        this.drawnPositions = drawnPositions;
+        this.score = score;
+    }
+
+    /**
+     * Gets the index of the player who played the turn.
+     *
+     * @return The index of the player.
+     */
+    public int getPlayerIndex() {
+        return playerIndex;
+    }
+
+    /**
+     * Gets the points won during the turn, including the bonus for finishing the game.
+     *
+     * @return The points won.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Checks whether the player passed instead of placing tiles.
+     *
+     * @return True if no tile was placed, false otherwise.
+     */
+    public boolean isPass() {
+        return tilesPlaced == 0;
+    }
+
+    /**
+     * Gets the number of consecutive passes before the turn.
+     *
+     * @return The number of passes.
+     */
+    int getPreviousCountPass() {
+        return previousCountPass;
+    }
+
+    /**
+     * Gets the score of the player before the turn.
+     *
+     * @return The previous score.
+     */
+    int getPreviousScore() {
+        return previousScore;
+    }
+
+    /**
+     * Gets the hand of the player before the turn.
+     *
+     * @return The previous hand, in order.
+     */
+    Tile[] getPreviousHand() {
+        return previousHand;
+    }
+
+    /**
+     * Gets the state of the random numbers of the bag before the turn.
+     *
+     * @return The previous state of the random numbers.
+     */
+    long getPreviousSeed() {
+        return previousSeed;
+    }
+
+    /**
+     * Gets the number of tiles placed on the grid during the turn.
+     *
+     * @return The number of tiles placed.
+     */
+    int getTilesPlaced() {
+        return tilesPlaced;
+    }
+
+    /**
+     * Gets the tiles drawn from the bag during the turn.
+     *
+     * @return The tiles drawn, in the order they were drawn.
+     */
+    Tile[] getDrawn() {
+        return drawn;
+    }
+
+    /**
+     * Gets the positions in the bag from which the tiles were drawn.
+     *
+     * @return The positions, in the order the tiles were drawn.
+     */
+    int[] getDrawnPositions() {
+        return drawnPositions;
+    }
+}
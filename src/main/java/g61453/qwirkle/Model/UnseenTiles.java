@@ -0,0 +1,174 @@
+package g61453.qwirkle.Model;
+
+import java.io.Serializable;
+
+/**
+ * Counts, for each player, the copies of each tile the player has not seen: the tiles still in the bag or in the
+ * hands of the other players. A player sees the tiles of the grid and of their own hand, so a tile placed is seen by
+ * the other players, and a tile drawn is seen by the player drawing it.
+ * The counts are updated with each tile placed or drawn, and the number of tiles of each kind on the grid is kept, so
+ * that the view of a player can be computed again from their hand without scanning the grid.
+ */
+class UnseenTiles implements Serializable {
+    private static final int COPIES_PER_TILE = 3;
+    private final byte[][] counts;
+    private final int[] totals;
+    private final byte[] onGrid;
+
+    /**
+     * Constructs the views of players who have not seen any tile yet.
+     *
+     * @param playerCount The number of players.
+     */
+    UnseenTiles(int playerCount) {
+        this.counts = new byte[playerCount][Tile.TYPES + 1];
+        this.totals = new int[playerCount];
+        this.onGrid = new byte[Tile.TYPES + 1];
+        for (int seat = 0; seat < playerCount; seat++) {
+            for (int code = 1; code <= Tile.TYPES; code++) {
+                counts[seat][code] = COPIES_PER_TILE;
+            }
+            totals[seat] = Tile.TYPES * COPIES_PER_TILE;
+        }
+    }
+
+    /**
+     * Constructs a copy of the views of the players.
+     *
+     * @param other The views to copy.
+     */
+    private UnseenTiles(UnseenTiles other) {
+        this.counts = new byte[other.counts.length][];
+        for (int seat = 0; seat < counts.length; seat++) {
+            counts[seat] = other.counts[seat].clone();
+        }
+        this.totals = other.totals.clone();
+        this.onGrid = other.onGrid.clone();
+    }
+
+    /**
+     * Creates a copy of the views of the players, counting the same tiles.
+     *
+     * @return The copy of the views.
+     */
+    UnseenTiles copy() {
+        return new UnseenTiles(this);
+    }
+
+    /**
+     * Records a tile drawn by a player, who sees it from now on.
+     *
+     * @param seat The index of the player.
+     * @param code The code of the tile.
+     */
+    void drawn(int seat, int code) {
+        counts[seat][code]--;
+        totals[seat]--;
+    }
+
+    /**
+     * Records a tile put back in the bag by a player, who no longer knows where it is.
+     *
+     * @param seat The index of the player.
+     * @param code The code of the tile.
+     */
+    void putBack(int seat, int code) {
+        counts[seat][code]++;
+        totals[seat]++;
+    }
+
+    /**
+     * Records a tile placed on the grid by a player, which the other players see from now on.
+     *
+     * @param seat The index of the player who placed the tile.
+     * @param code The code of the tile.
+     */
+    void placed(int seat, int code) {
+        onGrid[code]++;
+        for (int other = 0; other < counts.length; other++) {
+            if (other != seat) drawn(other, code);
+        }
+    }
+
+    /**
+     * Records a tile found on the grid when a game is loaded, the views of the players being computed again afterwards.
+     *
+     * @param code The code of the tile.
+     */
+    void onGrid(int code) {
+        onGrid[code]++;
+    }
+
+    /**
+     * Records a tile taken back from the grid into the hand of the player who placed it.
+     *
+     * @param seat The index of the player who placed the tile.
+     * @param code The code of the tile.
+     */
+    void removed(int seat, int code) {
+        onGrid[code]--;
+        for (int other = 0; other < counts.length; other++) {
+            if (other != seat) putBack(other, code);
+        }
+    }
+
+    /**
+     * Computes again the view of a player from the tiles of the grid and of their hand, after their hand changed
+     * without being drawn.
+     *
+     * @param seat   The index of the player.
+     * @param player The player.
+     */
+    void reset(int seat, Player player) {
+        totals[seat] = 0;
+        for (int code = 1; code <= Tile.TYPES; code++) {
+            counts[seat][code] = (byte) (COPIES_PER_TILE - onGrid[code] - player.count(code));
+            totals[seat] += counts[seat][code];
+        }
+    }
+
+    /**
+     * Counts the copies of a tile a player has not seen.
+     *
+     * @param seat The index of the player.
+     * @param code The code of the tile.
+     * @return The number of unseen copies, between 0 and 3.
+     */
+    int count(int seat, int code) {
+        return counts[seat][code];
+    }
+
+    /**
+     * Counts the tiles a player has not seen.
+     *
+     * @param seat The index of the player.
+     * @return The number of unseen tiles.
+     */
+    int total(int seat) {
+        return totals[seat];
+    }
+
+    /**
+     * Computes the probability, as seen by a player, that a hand of another player holds at least one tile of a set.
+     * The hand of the other player is as likely to be any of the sets of its size taken among the unseen tiles.
+     *
+     * @param seat     The index of the player.
+     * @param tiles    The mask of the tiles of the set, a tile being represented by the bit code - 1.
+     * @param handSize The number of tiles in the hand of the other player.
+     * @return The probability, between 0 and 1.
+     */
+    double probabilityHeld(int seat, long tiles, int handSize) {
+        int wanted = 0;
+        for (long mask = tiles; mask != 0; mask &= mask - 1) {
+            wanted += counts[seat][Long.numberOfTrailingZeros(mask) + 1];
+        }
+        int unseen = totals[seat];
+        if (wanted == 0 || handSize == 0) return 0;
+        if (unseen - wanted < handSize) return 1;
+        double none = 1;
+        for (int i = 0; i < handSize; i++) {
+            none *= (double) (unseen - wanted - i) / (unseen - i);
+        }
+        return 1 - none;
+    }
+}
@@ -0,0 +1,100 @@
+package g61453.qwirkle.Model;
+
+/**
+ * Computes the random keys of Zobrist hashing. The hash of a set of elements is the exclusive or of their keys, so it
+ * is updated in constant time when an element is added or removed, adding and removing being the same operation.
+ * The keys are derived from the elements by a mixing function rather than drawn in a table, so that cells of an
+ * unbounded grid have keys too, and so that the keys are the same from one run to the next.
+ */
+final class Zobrist {
+    private static final long CELL = 0x5DEECE66DL;
+    private static final long HAND = 0x2545F4914F6CDD1DL;
+    private static final long BAG = 0x9E3779B97F4A7C15L;
+    private static final long SEAT = 0xBF58476D1CE4E5B9L;
+    private static final long PLAYER_TO_MOVE = 0x94D049BB133111EBL;
+    private static final long PASSES = 0xD6E8FEB86659FD93L;
+
+    /**
+     * This class only holds static methods.
+     */
+    private Zobrist() {
+    }
+
+    /**
+     * Gets the key of a tile placed in a cell of the grid.
+     *
+     * @param row  The row of the cell.
+     * @param col  The column of the cell.
+     * @param code The code of the tile.
+     * @return The key of the tile in the cell.
+     */
+    static long cell(int row, int col, int code) {
+        return mix(mix(CELL ^ CellMap.key(row, col)) + code);
+    }
+
+    /**
+     * Gets the key of a copy of a tile in a hand. The first copy has the index 0, the second the index 1, and so on,
+     * so that the hash of a hand does not depend on the order of its tiles.
+     *
+     * @param code The code of the tile.
+     * @param copy The index of the copy.
+     * @return The key of the copy of the tile.
+     */
+    static long handTile(int code, int copy) {
+        return mix(HAND + code * (long) Tile.TYPES + copy);
+    }
+
+    /**
+     * Gets the key of a copy of a tile in the bag.
+     *
+     * @param code The code of the tile.
+     * @param copy The index of the copy.
+     * @return The key of the copy of the tile.
+     */
+    static long bagTile(int code, int copy) {
+        return mix(BAG + code * (long) Tile.TYPES + copy);
+    }
+
+    /**
+     * Gets the key of a hand held by the player sitting at a given index.
+     *
+     * @param index    The index of the player.
+     * @param handHash The hash of the hand.
+     * @return The key of the hand at this seat.
+     */
+    static long seat(int index, long handHash) {
+        return mix(mix(SEAT + index) ^ handHash);
+    }
+
+    /**
+     * Gets the key of the player whose turn it is.
+     *
+     * @param index The index of the player.
+     * @return The key of the player to move.
+     */
+    static long playerToMove(int index) {
+        return mix(PLAYER_TO_MOVE + index);
+    }
+
+    /**
+     * Gets the key of the number of consecutive passes.
+     *
+     * @param count The number of passes.
+     * @return The key of the number of passes.
+     */
+    static long passes(int count) {
+        return mix(PASSES + count);
+    }
+
+    /**
+     * Mixes the bits of a value with the finalizer of SplitMix64, so that close values get unrelated keys.
+     *
+     * @param value The value to mix.
+     * @return The mixed value.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
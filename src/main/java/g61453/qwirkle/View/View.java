@@ -35,15 +35,15 @@ public class View {
      * @param grid The GridView representing the game grid.
      */
     public static void display(GridView grid) {
-        int minRow = getMinRow(grid);
-        int minCol = getMinCol(grid);
-        int maxRow = getMaxRow(grid);
-        int maxCol = getMaxCol(grid);
-
-        if (minRow == -1 || minCol == -1 || maxRow == -1 || maxCol == -1) {
+        if (grid.isEmpty()) {
             return;
         }
 
+        int minRow = grid.getMinRow();
+        int minCol = grid.getMinCol();
+        int maxRow = grid.getMaxRow();
+        int maxCol = grid.getMaxCol();
+
         for (int row = minRow; row <= maxRow + 1; row++) {
             if (row == maxRow + 1) {
                 System.out.print("    ");
@@ -107,6 +107,8 @@ public class View {
         System.out.println("- play plic-ploc : m <row1> <col1> <i1> [<row2> <col2> <i2>]");
         System.out.println("- play first : f [<direction>] <i1> [<i2>]");
         System.out.println("- pass : p");
+        System.out.println("- hint : h");
+        System.out.println("- undo : u, when asked right after your turn");
         System.out.println("- save game : s <fileName>");
         System.out.println("- quit : q");
         System.out.println("    i : index in list of tiles");
@@ -114,80 +116,46 @@ public class View {
     }
 
     /**
-     * Display an error message to the user.
-     *
-     * @param errorMsg The error message to display.
-     */
-    public static void displayError(String errorMsg) {
-        System.out.println(RED_BOLD + "Error: " + errorMsg + RESET);
-    }
-
-    /**
-     * Get the minimum column index with a tile in the GridView.
+     * Displays the move suggested to the current player, as the command playing it.
      *
-     * @param grid The GridView to search for tiles.
-     * @return The minimum column index with a tile, or -1 if no tiles are found.
+     * @param command The command playing the move.
+     * @param score   The score of the move.
      */
-    private static int getMinCol(GridView grid) {
-        for (int col = 0; col < 91; col++) {
-            for (int row = 0; row < 91; row++) {
-                if (grid.get(row, col) != null) {
-                    return col;
-                }
-            }
-        }
-        return -1;
+    public static void displayHint(String command, int score) {
+        System.out.println(BOLD + "Hint: " + command + " (" + score + " points)" + RESET);
     }
 
     /**
-     * Get the minimum row index with a tile in the GridView.
+     * Displays the report of a simulation: its throughput, the length of the games, the distribution of the scores
+     * and the wins of each seat.
      *
-     * @param grid The GridView to search for tiles.
-     * @return The minimum row index with a tile, or -1 if no tiles are found.
+     * @param report The report of the simulation.
      */
-    private static int getMinRow(GridView grid) {
-        for (int row = 0; row < 91; row++) {
-            for (int col = 0; col < 91; col++) {
-                if (grid.get(row, col) != null) {
-                    return row;
-                }
-            }
+    public static void displaySimulationReport(SimulationReport report) {
+        System.out.println(BOLD + "Simulation report" + RESET);
+        System.out.printf("Games: %d in %.2f s (%.0f games/s), %d unfinished%n", report.getGames(),
+                report.getElapsedNanos() / 1e9, report.getGamesPerSecond(), report.getUnfinishedGames());
+        System.out.printf("Turns per game: mean %.1f, min %d, max %d%n", report.getMeanTurns(),
+                report.getMinTurns(), report.getMaxTurns());
+        System.out.printf("Scores: mean %.1f, deviation %.1f, winner mean %.1f%n", report.getMeanScore(),
+                report.getScoreStandardDeviation(), report.getMeanWinningScore());
+        System.out.printf("Score percentiles: 10%% %d, 25%% %d, 50%% %d, 75%% %d, 90%% %d, 99%% %d%n",
+                report.getScorePercentile(10), report.getScorePercentile(25), report.getScorePercentile(50),
+                report.getScorePercentile(75), report.getScorePercentile(90), report.getScorePercentile(99));
+        for (int seat = 0; seat < report.getPlayerCount(); seat++) {
+            long wins = report.getWins(seat);
+            System.out.printf("Seat %d: %d wins (%.1f%%)%n", seat + 1, wins,
+                    report.getGames() == 0 ? 0 : 100.0 * wins / report.getGames());
         }
-        return -1;
     }
 
     /**
-     * Get the maximum column index with a tile in the GridView.
-     *
-     * @param grid The GridView to search for tiles.
-     * @return The maximum column index with a tile, or -1 if no tiles are found.
-     */
-    private static int getMaxCol(GridView grid) {
-        for (int col = 90; col > -1; col--) {
-            for (int row = 0; row < 91; row++) {
-                if (grid.get(row, col) != null) {
-                    return col;
-                }
-            }
-        }
-        return -1;
-    }
-
-    /**
-     * Get the maximum row index with a tile in the GridView.
+     * Display an error message to the user.
      *
-     * @param grid The GridView to search for tiles.
-     * @return The maximum row index with a tile, or -1 if no tiles are found.
+     * @param errorMsg The error message to display.
      */
-    private static int getMaxRow(GridView grid) {
-        for (int row = 90; row > -1; row--) {
-            for (int col = 0; col < 91; col++) {
-                if (grid.get(row, col) != null) {
-                    return row;
-                }
-            }
-        }
-        return -1;
+    public static void displayError(String errorMsg) {
+        System.out.println(RED_BOLD + "Error: " + errorMsg + RESET);
     }
 
     /**
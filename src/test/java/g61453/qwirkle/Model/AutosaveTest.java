@@ -0,0 +1,37 @@
+package g61453.qwirkle.Model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutosaveTest {
+
+    @Test
+    void the_file_holds_the_last_turn_once_closed(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("autosave");
+        Game game = new Game(List.of("alice", "bob"), 9);
+        int submitted = 0;
+        Autosave autosave = new Autosave(file);
+        try (autosave) {
+            for (int turn = 0; turn < 40 && !game.isOver(); turn++) {
+                SelfPlay.playTurn(game);
+                autosave.submit(game);
+                submitted++;
+            }
+        }
+        assertTrue(autosave.getWritten() >= 1 && autosave.getWritten() <= submitted);
+        Game saved = SaveFormat.read(file);
+        assertEquals(game.getHash(), saved.getHash());
+        assertEquals(game.getPlayerScore(0), saved.getPlayerScore(0));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+}
@@ -5,7 +5,7 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 class BagTest {
-    private Bag bag = Bag.getInstance();
+    private Bag bag = new Bag();
 
     @Test
     void allTest() {
@@ -41,4 +41,60 @@ class BagTest {
         String expectedMsg = "There are no more tiles in the bag.";
         assertEquals(expectedMsg, q.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void bags_built_from_the_same_seed_deal_the_same_tiles() {
+        Bag first = new Bag(42);
+        Bag second = new Bag(42);
+        assertArrayEquals(first.getRandomTiles(20), second.getRandomTiles(20));
+    }
+
+    @Test
+    void getting_more_tiles_than_left_gives_the_tiles_left() {
+        Bag full = new Bag(7);
+        full.getRandomTiles(105);
+        assertEquals(3, full.getRandomTiles(6).length);
+        assertEquals(0, full.size());
+    }
+
+    @Test
+    void putting_back_a_draw_restores_the_bag() {
+        Bag full = new Bag(3);
+        long hash = full.getHash();
+        Bag copy = full.copy();
+        int[] positions = new int[6];
+        Tile[] drawn = full.draw(positions);
+        assertEquals(102, full.size());
+        assertNotEquals(hash, full.getHash());
+        full.putBack(drawn, positions);
+        assertEquals(108, full.size());
+        assertEquals(hash, full.getHash());
+        assertArrayEquals(drawn, copy.draw(new int[6]));
+    }
+
+    @Test
+    void copies_of_a_tile_are_counted() {
+        Bag full = new Bag(5);
+        int code = full.getRandomTiles(1)[0].code();
+        assertEquals(2, full.count(code));
+        full.getRandomTiles(107);
+        assertEquals(0, full.count(code));
+        assertEquals(0, full.getHash());
+    }
+
+    @Test
+    void split_bags_hold_the_same_tiles() {
+        Bag full = new Bag(9);
+        full.getRandomTiles(30);
+        Bag split = full.split();
+        assertEquals(full.size(), split.size());
+        assertEquals(full.getHash(), split.getHash());
+    }
+
+    @Test
+    void taking_a_tile_missing_from_the_bag_is_refused() {
+        Bag bag = new Bag(new byte[]{1, 2}, 2, 0);
+        Tile[] missing = {Tile.fromCode(3)};
+        assertThrows(QwirkleException.class, () -> bag.take(missing, new int[1]));
+    }
+}
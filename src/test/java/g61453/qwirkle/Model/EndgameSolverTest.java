@@ -0,0 +1,74 @@
+package g61453.qwirkle.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndgameSolverTest {
+
+    private static final long BUDGET = 20_000_000_000L;
+
+    private static int bruteForce(Game game) {
+        if (game.isOver()) return 0;
+        List<Move> moves = game.getLegalMoves();
+        if (moves.isEmpty()) {
+            game.pass();
+            int value = -bruteForce(game);
+            game.undo();
+            return value;
+        }
+        int best = Integer.MIN_VALUE;
+        for (Move move : moves) {
+            int score = game.apply(move).getScore();
+            best = Math.max(best, score - bruteForce(game));
+            game.undo();
+        }
+        return best;
+    }
+
+    @Test
+    void solves_the_last_turns_like_a_search_of_every_line() {
+        Game game = new Game(List.of("a", "b"), 1);
+        Strategy greedy = new GreedyStrategy(BUDGET);
+        while (game.getBag().size() > 0) {
+            SelfPlay.playTurn(game, greedy);
+        }
+        for (int turn = 0; turn < 4; turn++) {
+            SelfPlay.playTurn(game, greedy);
+        }
+        long hash = game.getHash();
+        EndgameSolver solver = new EndgameSolver(BUDGET, greedy);
+        Move move = solver.choose(game);
+        assertTrue(solver.isSolved());
+        assertEquals(hash, game.getHash());
+        assertEquals(bruteForce(game), solver.getValue());
+        int score = game.apply(move).getScore();
+        assertEquals(solver.getValue(), score - bruteForce(game));
+    }
+
+    @Test
+    void falls_back_while_the_bag_holds_tiles() {
+        Game game = new Game(List.of("a", "b"), 1);
+        EndgameSolver solver = new EndgameSolver(BUDGET, new GreedyStrategy(BUDGET));
+        assertNotNull(solver.choose(game));
+        assertFalse(solver.isSolved());
+        assertEquals(0, solver.getDepth());
+    }
+
+    @Test
+    void stops_at_a_deadline_shared_with_the_fallback() {
+        Game game = new Game(List.of("a", "b"), 1);
+        Strategy greedy = new GreedyStrategy(BUDGET);
+        while (game.getBag().size() > 0) {
+            SelfPlay.playTurn(game, greedy);
+        }
+        EndgameSolver solver = new EndgameSolver(BUDGET, greedy);
+        long start = System.nanoTime();
+        Move move = solver.choose(game, start);
+        assertTrue(System.nanoTime() - start < BUDGET / 10);
+        assertFalse(solver.isSolved());
+        assertEquals(move == null, game.getLegalMoves().isEmpty());
+    }
+}
@@ -0,0 +1,70 @@
+package g61453.qwirkle.Model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameArchiveTest {
+
+    private static Game playedGame(long seed) {
+        return SelfPlay.playedGame(seed, 200);
+    }
+
+    @Test
+    void a_game_read_back_is_the_game_added(@TempDir Path directory) {
+        List<Game> games = new ArrayList<>();
+        try (GameArchive archive = new GameArchive(directory, 2048)) {
+            for (int seed = 0; seed < 8; seed++) {
+                Game game = playedGame(seed);
+                games.add(game);
+                assertEquals(seed, archive.append(game));
+            }
+        }
+        GameArchive archive = new GameArchive(directory);
+        assertEquals(games.size(), archive.size());
+        for (int id = 0; id < games.size(); id++) {
+            GameRecord record = archive.get(id);
+            assertTrue(record.isIntact());
+            assertEquals("bob", record.getName(1));
+            assertEquals(games.get(id).getPlayerScore(0), record.getScore(0));
+            assertEquals(games.get(id).getHash(), record.replay().getHash());
+        }
+    }
+
+    @Test
+    void a_scan_sees_every_game_in_order(@TempDir Path directory) {
+        try (GameArchive archive = new GameArchive(directory, 4096)) {
+            int expected = 0;
+            for (int seed = 0; seed < 5; seed++) {
+                Game game = playedGame(seed);
+                archive.append(game);
+                expected += game.getPlayerScore(1);
+            }
+            int[] total = new int[1];
+            archive.scan(record -> total[0] += record.getScore(1));
+            assertEquals(expected, total[0]);
+        }
+    }
+
+    @Test
+    void a_game_read_from_a_save_cannot_be_archived(@TempDir Path directory) {
+        Game saved = SaveFormat.decode(SaveFormat.encode(playedGame(1)));
+        try (GameArchive archive = new GameArchive(directory)) {
+            assertThrows(QwirkleException.class, () -> archive.append(saved));
+        }
+    }
+
+    @Test
+    void a_folder_whose_index_is_not_an_archive_index_is_refused(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("index"), "not an index");
+        assertThrows(QwirkleException.class, () -> new GameArchive(directory));
+        assertEquals("not an index", Files.readString(directory.resolve("index")).substring(0, 12));
+    }
+}
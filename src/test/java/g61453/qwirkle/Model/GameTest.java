@@ -0,0 +1,108 @@
+package g61453.qwirkle.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameTest {
+
+    @Test
+    void each_game_draws_from_its_own_bag() {
+        Game first = new Game(List.of("alice", "bob"));
+        Game second = new Game(List.of("carol", "dave", "erin"));
+        assertEquals(108 - 2 * 6, first.getBag().size());
+        assertEquals(108 - 3 * 6, second.getBag().size());
+    }
+
+    @Test
+    void undoing_a_turn_restores_the_hash_of_the_position() {
+        Game game = new Game(List.of("alice", "bob"));
+        long hash = game.getHash();
+        game.apply(game.getLegalMoves().get(0));
+        assertNotEquals(hash, game.getHash());
+        assertTrue(game.undo());
+        assertEquals(hash, game.getHash());
+    }
+
+    @Test
+    void a_turn_played_again_after_an_undo_draws_the_same_tiles() {
+        for (long seed = 0; seed < 20; seed++) {
+            Game game = new Game(List.of("alice", "bob"), seed);
+            Move move = game.getLegalMoves().get(0);
+            Turn first = game.apply(move);
+            long hash = game.getHash();
+            game.undo();
+            Turn again = game.apply(move);
+            assertArrayEquals(first.getDrawn(), again.getDrawn());
+            assertEquals(hash, game.getHash());
+        }
+    }
+
+    @Test
+    void a_copy_is_played_without_changing_the_game() {
+        Game game = new Game(List.of("alice", "bob"), 1);
+        long hash = game.getHash();
+        Game copy = game.copy();
+        assertEquals(hash, copy.getHash());
+        copy.apply(copy.getLegalMoves().get(0));
+        assertEquals(hash, game.getHash());
+        assertNotEquals(hash, copy.getHash());
+    }
+
+    @Test
+    void a_copy_plays_and_undoes_like_the_game() {
+        Game game = SelfPlay.playedGame(3, 8);
+        Game copy = game.copy();
+        for (int turn = 0; turn < 4; turn++) {
+            assertEquals(game.getLegalMoves(), copy.getLegalMoves());
+            SelfPlay.playTurn(game);
+            SelfPlay.playTurn(copy);
+            assertEquals(game.getHash(), copy.getHash());
+        }
+        long played = game.getHash();
+        while (copy.undo()) {
+            assertEquals(played, game.getHash());
+        }
+        assertEquals(12, game.getTurnCount());
+        assertEquals(0, copy.getTurnCount());
+    }
+
+    @Test
+    void dealing_again_keeps_what_the_player_sees() {
+        Game game = new Game(List.of("alice", "bob", "carol"), 1);
+        game.apply(game.getLegalMoves().get(0));
+        List<Tile> hand = List.copyOf(game.getCurrentPlayerHand());
+        int bagSize = game.getBag().size();
+        game.redeal(game.getCurrentPlayerIndex(), 42);
+        assertEquals(hand, game.getCurrentPlayerHand());
+        assertEquals(bagSize, game.getBag().size());
+        game.pass();
+        assertEquals(6, game.getCurrentPlayerHand().size());
+    }
+
+    @Test
+    void unseen_tiles_follow_the_moves_and_their_undoing() {
+        Game game = new Game(List.of("alice", "bob"), 1);
+        assertEquals(102, game.getUnseenTotal(0));
+        Move move = game.getLegalMoves().get(0);
+        game.apply(move);
+        assertEquals(102 - move.size(), game.getUnseenTotal(0));
+        assertEquals(102 - move.size(), game.getUnseenTotal(1));
+        assertTrue(game.getUnseenCount(1, move.getTile(0)) < 3);
+        game.undo();
+        assertEquals(102, game.getUnseenTotal(0));
+        assertEquals(102, game.getUnseenTotal(1));
+    }
+
+    @Test
+    void holding_probability_grows_with_the_tiles_looked_for() {
+        Game game = new Game(List.of("alice", "bob"), 1);
+        Tile tile = new Tile(Color.RED, Shape.CROSS);
+        double one = game.getHoldingProbability(0, 1, tile);
+        double two = game.getHoldingProbability(0, 1, tile, new Tile(Color.BLUE, Shape.STAR));
+        assertTrue(one > 0 && one < two && two < 1);
+        assertEquals(0, game.getHoldingProbability(0, 1));
+    }
+}
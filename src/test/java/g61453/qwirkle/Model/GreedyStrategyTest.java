@@ -0,0 +1,87 @@
+package g61453.qwirkle.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GreedyStrategyTest {
+
+    private static final long BUDGET = 1_000_000_000L;
+
+    @Test
+    void plays_a_move_scoring_the_most_of_the_legal_moves() {
+        Game game = new Game(List.of("a", "b"), 1);
+        Strategy greedy = new GreedyStrategy(BUDGET, new ForkJoinPool(4));
+        for (int turn = 0; turn < 30 && !game.isOver(); turn++) {
+            int best = game.getLegalMoves().stream().mapToInt(Move::getScore).max().orElse(-1);
+            Move move = greedy.choose(game);
+            if (move == null) {
+                assertEquals(-1, best);
+                game.pass();
+            } else {
+                assertEquals(best, move.getScore());
+                game.apply(move);
+            }
+        }
+    }
+
+    @Test
+    void parts_of_the_lines_list_every_move_together() {
+        Game game = new Game(List.of("a", "b"), 2);
+        Strategy greedy = new GreedyStrategy(BUDGET, new ForkJoinPool(1));
+        for (int turn = 0; turn < 10; turn++) {
+            game.apply(greedy.choose(game));
+        }
+        MoveGenerator generator = new MoveGenerator();
+        int count = 0;
+        for (int part = 0; part < 3; part++) {
+            count += generator.generate(game.getGrid(), game.getCurrentPlayerHand(), part, 3,
+                    System.nanoTime() + BUDGET).size();
+            assertTrue(generator.isComplete());
+        }
+        assertEquals(game.getLegalMoves().size(), count);
+    }
+
+    @Test
+    void finds_a_move_even_when_the_budget_is_spent_at_once() {
+        Game game = new Game(List.of("a", "b"), 3);
+        Strategy hasty = new GreedyStrategy(1);
+        for (int turn = 0; turn < 20 && !game.isOver(); turn++) {
+            Move move = hasty.choose(game);
+            if (move == null) {
+                assertTrue(game.getLegalMoves().isEmpty());
+                game.pass();
+            } else {
+                game.apply(move);
+            }
+        }
+    }
+
+    @Test
+    void moves_scoring_the_same_are_chosen_whatever_the_threads() {
+        Game game = new Game(List.of("a", "b"), 4);
+        Strategy alone = new GreedyStrategy(BUDGET, new ForkJoinPool(1));
+        Strategy shared = new GreedyStrategy(BUDGET, new ForkJoinPool(3));
+        for (int turn = 0; turn < 30 && !game.isOver(); turn++) {
+            Move move = alone.choose(game);
+            Move other = shared.choose(game);
+            assertEquals(move == null, other == null);
+            if (move != null) {
+                assertArrayEquals(move.toTilesAtPositions(), other.toTilesAtPositions());
+            }
+            if (move == null) {
+                game.pass();
+            } else {
+                game.apply(move);
+            }
+        }
+    }
+
+    @Test
+    void budget_must_be_strictly_positive() {
+        assertThrows(QwirkleException.class, () -> new GreedyStrategy(0));
+    }
+}
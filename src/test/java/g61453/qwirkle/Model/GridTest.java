@@ -58,6 +58,18 @@ class GridTest {
         assertNull(grid.get(99, 46));
     }
 
+    @Test
+    void add_one_tile_chosen_cell_with_negative_coordinates_outside_virtual_grid() {
+        Tile tile1 = new Tile(RED, CROSS);
+        grid.firstAdd(UP, tile1);
+        Tile tile2 = new Tile(RED, DIAMOND);
+        QwirkleException q = assertThrows(QwirkleException.class, () -> grid.add(45, -1, tile2));
+        String expectedMsg = "The chosen cell is located outside the grid.";
+        assertEquals(expectedMsg, q.getMessage());
+        assertNull(grid.get(45, -1));
+        assertNull(grid.get(44, 90));
+    }
+
     @Test
     void add_one_tile_chosen_cell_already_occupied() {
         Tile tile1 = new Tile(RED, CROSS);
@@ -168,6 +180,19 @@ class GridTest {
         assertNull(grid.get(43, 45));
     }
 
+    @Test
+    void add_line_of_tile_identical_to_existing_tile_of_the_line() {
+        Tile tile1 = new Tile(RED, CROSS);
+        grid.firstAdd(UP, tile1);
+        Tile tile2 = new Tile(RED, CROSS);
+        Tile tile3 = new Tile(RED, STAR);
+        QwirkleException q = assertThrows(QwirkleException.class, () -> grid.add(45, 46, RIGHT, tile2, tile3));
+        String expectedMsg = "Duplicate tiles found on a single line.";
+        assertEquals(expectedMsg, q.getMessage());
+        assertNull(grid.get(45, 46));
+        assertNull(grid.get(45, 47));
+    }
+
     @Test
     void add_line_of_tile_no_common_attribute() {
         Tile tile1 = new Tile(RED, CROSS);
@@ -984,6 +1009,16 @@ class GridTest {
         assertEquals(9, grid.add(46, 49, DOWN, tile1, tile2));
     }
 
+    @Test
+    void add_one_tile_filling_a_hole_with_three_neighbours_score_should_be_5() {
+        grid.firstAdd(RIGHT, new Tile(RED, CROSS), new Tile(RED, SQUARE));
+        grid.add(44, 45, UP, new Tile(BLUE, CROSS), new Tile(GREEN, CROSS));
+        grid.add(43, 46, new Tile(GREEN, SQUARE));
+        Tile tile = new Tile(BLUE, SQUARE);
+        assertEquals(5, grid.add(44, 46, tile));
+        assertEquals(tile, grid.get(44, 46));
+    }
+
     @Test
     void isEmpty_must_be_true_at_first_round() {
         assertTrue(grid.isEmpty());
@@ -995,4 +1030,158 @@ class GridTest {
         grid.firstAdd(UP, tile);
         assertFalse(grid.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void bounding_box_must_follow_placed_tiles() {
+        rules_cedric_b_valid_line();
+        assertEquals(43, grid.getMinRow());
+        assertEquals(45, grid.getMinCol());
+        assertEquals(46, grid.getMaxRow());
+        assertEquals(47, grid.getMaxCol());
+    }
+
+    @Test
+    void bounding_box_must_not_change_after_a_refused_move() {
+        rules_cedric_b_valid_line();
+        Tile tile = new Tile(GREEN, CROSS);
+        assertThrows(QwirkleException.class, () -> grid.add(46, 48, tile));
+        assertEquals(47, grid.getMaxCol());
+    }
+
+    @Test
+    void unbounded_grid_has_no_cell_outside_the_grid() {
+        Grid unbounded = Grid.unbounded();
+        unbounded.firstAdd(UP, new Tile(RED, CROSS));
+        Tile tile = new Tile(RED, DIAMOND);
+        QwirkleException q = assertThrows(QwirkleException.class, () -> unbounded.add(-99, 46, tile));
+        String expectedMsg = "Prohibited action: Tile must connect to existing line.";
+        assertEquals(expectedMsg, q.getMessage());
+        assertNull(unbounded.get(-99, 46));
+    }
+
+    @Test
+    void unbounded_grid_plays_like_the_bounded_grid() {
+        Grid unbounded = Grid.unbounded();
+        Tile t1 = new Tile(RED, ROUND);
+        Tile t2 = new Tile(RED, DIAMOND);
+        Tile t3 = new Tile(RED, PLUS);
+        assertEquals(3, unbounded.firstAdd(UP, t1, t2, t3));
+        Tile t4 = new Tile(RED, SQUARE);
+        Tile t5 = new Tile(BLUE, SQUARE);
+        Tile t6 = new Tile(PURPLE, SQUARE);
+        assertEquals(7, unbounded.add(46, 45, RIGHT, t4, t5, t6));
+        assertEquals(t5, unbounded.get(46, 46));
+    }
+
+    @Test
+    void evaluate_returns_the_score_without_placing_the_tiles() {
+        rules_cedric_b_valid_line();
+        Tile tile = new Tile(BLUE, ROUND);
+        assertEquals(4, grid.evaluate(45, 46, tile));
+        assertNull(grid.get(45, 46));
+        assertEquals(4, grid.add(45, 46, tile));
+    }
+
+    @Test
+    void evaluate_returns_the_code_of_the_error_instead_of_throwing() {
+        rules_cedric_b_valid_line();
+        Tile tile = new Tile(GREEN, CROSS);
+        int result = grid.evaluate(46, 48, tile);
+        assertTrue(MoveError.isError(result));
+        QwirkleException q = assertThrows(QwirkleException.class, () -> grid.add(46, 48, tile));
+        assertEquals(MoveError.of(result).getMessage(), q.getMessage());
+    }
+
+    @Test
+    void evaluate_is_refused_during_the_first_turn() {
+        Tile tile = new Tile(RED, DIAMOND);
+        assertEquals(MoveError.NOT_FIRST_TURN, MoveError.of(grid.evaluate(45, 45, tile)));
+        assertEquals(1, grid.evaluateFirst(tile));
+        assertTrue(grid.isEmpty());
+    }
+
+    @Test
+    void frontier_holds_the_empty_cells_touching_a_tile() {
+        rules_sonia_a_valid_line();
+        Frontier frontier = grid.getFrontier();
+        assertEquals(8, frontier.size());
+        assertTrue(frontier.contains(42, 45));
+        assertTrue(frontier.contains(44, 46));
+        assertFalse(frontier.contains(44, 47));
+        assertFalse(frontier.contains(45, 45));
+    }
+
+    @Test
+    void frontier_masks_hold_the_tiles_fitting_both_lines() {
+        grid.firstAdd(RIGHT, new Tile(RED, ROUND), new Tile(RED, DIAMOND));
+        grid.add(46, 45, new Tile(BLUE, ROUND));
+        long fitting = grid.getFrontier().fittingTiles(46, 46);
+        for (Color color : Color.values()) {
+            for (Shape shape : Shape.values()) {
+                Tile tile = new Tile(color, shape);
+                boolean fits = (fitting & (1L << (tile.code() - 1))) != 0;
+                assertEquals(!MoveError.isError(grid.evaluate(46, 46, tile)), fits);
+            }
+        }
+        assertEquals(0, grid.getFrontier().fittingTiles(44, 48));
+    }
+
+    @Test
+    void removing_the_last_tiles_restores_the_grid() {
+        rules_sonia_a_valid_line();
+        Frontier frontier = grid.getFrontier();
+        int frontierSize = frontier.size();
+        long fitting = frontier.fittingTiles(46, 45);
+        grid.add(46, 45, RIGHT, new Tile(RED, SQUARE), new Tile(BLUE, SQUARE), new Tile(PURPLE, SQUARE));
+        grid.removeLastTiles(3);
+        assertNull(grid.get(46, 46));
+        assertEquals(46 - 3, grid.getMinRow());
+        assertEquals(45, grid.getMaxRow());
+        assertEquals(45, grid.getMaxCol());
+        assertEquals(frontierSize, frontier.size());
+        assertEquals(fitting, frontier.fittingTiles(46, 45));
+        assertEquals(7, grid.add(46, 45, RIGHT, new Tile(RED, SQUARE), new Tile(BLUE, SQUARE),
+                new Tile(PURPLE, SQUARE)));
+    }
+
+    @Test
+    void removing_every_tile_empties_the_grid() {
+        grid.firstAdd(RIGHT, new Tile(RED, ROUND), new Tile(RED, DIAMOND));
+        grid.removeLastTiles(2);
+        assertTrue(grid.isEmpty());
+        assertEquals(0, grid.getFrontier().size());
+        assertEquals(1, grid.firstAdd(DOWN, new Tile(BLUE, STAR)));
+    }
+
+    @Test
+    void hash_does_not_depend_on_the_order_of_the_moves() {
+        grid.firstAdd(RIGHT, new Tile(RED, ROUND), new Tile(RED, DIAMOND));
+        grid.add(46, 45, new Tile(BLUE, ROUND));
+        grid.add(44, 46, new Tile(RED, SQUARE));
+        Grid other = new Grid();
+        other.firstAdd(RIGHT, new Tile(RED, ROUND), new Tile(RED, DIAMOND));
+        other.add(44, 46, new Tile(RED, SQUARE));
+        other.add(46, 45, new Tile(BLUE, ROUND));
+        assertEquals(grid.getHash(), other.getHash());
+    }
+
+    @Test
+    void hash_depends_on_the_cells_of_the_tiles() {
+        grid.firstAdd(RIGHT, new Tile(RED, ROUND), new Tile(RED, DIAMOND));
+        Grid other = new Grid();
+        other.firstAdd(RIGHT, new Tile(RED, DIAMOND), new Tile(RED, ROUND));
+        assertNotEquals(grid.getHash(), other.getHash());
+    }
+
+    @Test
+    void removing_tiles_restores_the_hash() {
+        assertEquals(0, grid.getHash());
+        grid.firstAdd(RIGHT, new Tile(RED, ROUND), new Tile(RED, DIAMOND));
+        long hash = grid.getHash();
+        grid.add(46, 45, DOWN, new Tile(BLUE, ROUND), new Tile(GREEN, ROUND));
+        grid.removeLastTiles(2);
+        assertEquals(hash, grid.getHash());
+        grid.removeLastTiles(2);
+        assertEquals(0, grid.getHash());
+    }
+}
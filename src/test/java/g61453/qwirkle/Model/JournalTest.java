@@ -0,0 +1,57 @@
+package g61453.qwirkle.Model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+
+    private static Game replay(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return Journal.replay(channel);
+        }
+    }
+
+    @Test
+    void replaying_the_journal_gives_back_the_game(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("journal");
+        Game game = new Game(List.of("alice", "bob"), 3);
+        try (Journal journal = Journal.create(game, file, 4)) {
+            for (int turn = 0; turn < 30 && !game.isOver(); turn++) {
+                Turn played = SelfPlay.playTurn(game);
+                journal.recordTurn(game.getGridModel(), played, game.getPlayerScore(played.getPlayerIndex()));
+            }
+            game.undo();
+            journal.recordUndo();
+        }
+        Game replayed = replay(file);
+        assertEquals(game.getHash(), replayed.getHash());
+        assertEquals(game.getPlayerScore(0), replayed.getPlayerScore(0));
+        assertEquals(game.getPlayerScore(1), replayed.getPlayerScore(1));
+        assertEquals(game.getCurrentPlayerIndex(), replayed.getCurrentPlayerIndex());
+    }
+
+    @Test
+    void an_entry_cut_by_a_crash_ends_the_journal(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("journal");
+        Game game = new Game(List.of("alice", "bob"), 5);
+        try (Journal journal = Journal.create(game, file, 0)) {
+            for (int turn = 0; turn < 10; turn++) {
+                Turn played = SelfPlay.playTurn(game);
+                journal.recordTurn(game.getGridModel(), played, game.getPlayerScore(played.getPlayerIndex()));
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x43, 45, 46}));
+        }
+        assertEquals(game.getHash(), replay(file).getHash());
+    }
+}
@@ -0,0 +1,31 @@
+package g61453.qwirkle.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloStrategyTest {
+
+    @Test
+    void chooses_a_legal_move_and_leaves_the_game_as_it_was() {
+        Game game = new Game(List.of("a", "b"), 3);
+        Strategy greedy = new GreedyStrategy(1_000_000_000L);
+        for (int turn = 0; turn < 6; turn++) {
+            SelfPlay.playTurn(game, greedy);
+        }
+        long hash = game.getHash();
+        MonteCarloStrategy search = new MonteCarloStrategy(100_000_000L, 0, new ForkJoinPool(2));
+        Move move = search.choose(game);
+        assertEquals(hash, game.getHash());
+        assertTrue(search.getLastIterations() > 0);
+        assertTrue(game.getLegalMoves().contains(move));
+    }
+
+    @Test
+    void budget_must_be_strictly_positive() {
+        assertThrows(QwirkleException.class, () -> new MonteCarloStrategy(0, 0));
+    }
+}
@@ -0,0 +1,80 @@
+package g61453.qwirkle.Model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static g61453.qwirkle.Model.Direction.*;
+import static g61453.qwirkle.Model.Shape.*;
+import static g61453.qwirkle.Model.Color.*;
+
+class MoveGeneratorTest {
+
+    private Grid grid;
+    private GridView gridView;
+    private MoveGenerator generator;
+
+    @BeforeEach
+    void setup() {
+        grid = new Grid();
+        gridView = new GridView(grid);
+        generator = new MoveGenerator();
+    }
+
+    @Test
+    void first_moves_list_each_set_of_tiles_forming_a_line_once() {
+        List<Tile> hand = List.of(new Tile(RED, CROSS), new Tile(RED, DIAMOND), new Tile(BLUE, STAR));
+        List<Move> moves = generator.generate(gridView, hand);
+        assertEquals(4, moves.size());
+        for (Move move : moves) {
+            assertEquals(MoveKind.FIRST, move.getKind());
+            assertEquals(move.size(), move.getScore());
+        }
+    }
+
+    @Test
+    void equal_tiles_do_not_repeat_the_moves() {
+        grid.firstAdd(RIGHT, new Tile(RED, CROSS));
+        List<Tile> one = List.of(new Tile(RED, DIAMOND));
+        List<Tile> two = List.of(new Tile(RED, DIAMOND), new Tile(RED, DIAMOND));
+        assertEquals(4, generator.generate(gridView, one).size());
+        assertEquals(4, generator.generate(gridView, two).size());
+    }
+
+    @Test
+    void moves_are_scored_as_the_grid_scores_them() {
+        grid.firstAdd(RIGHT, new Tile(RED, ROUND), new Tile(RED, DIAMOND), new Tile(RED, PLUS));
+        List<Tile> hand = List.of(new Tile(BLUE, ROUND), new Tile(BLUE, DIAMOND), new Tile(GREEN, SQUARE),
+                new Tile(RED, STAR), new Tile(YELLOW, PLUS), new Tile(BLUE, ROUND));
+        List<Move> moves = generator.generate(gridView, hand);
+        assertFalse(moves.isEmpty());
+        for (Move move : moves) {
+            assertEquals(move.getScore(), grid.evaluate(move.toTilesAtPositions()));
+        }
+    }
+
+    @Test
+    void plic_ploc_moves_fill_the_holes_of_a_line() {
+        grid.firstAdd(DOWN, new Tile(RED, ROUND), new Tile(BLUE, ROUND), new Tile(GREEN, ROUND));
+        List<Tile> hand = List.of(new Tile(BLUE, DIAMOND), new Tile(BLUE, STAR));
+        int found = 0;
+        for (Move move : generator.generate(gridView, hand)) {
+            if (move.getKind() == MoveKind.PLIC_PLOC) {
+                found++;
+                assertEquals(46, move.getRow(0));
+                assertEquals(2, Math.abs(move.getCol(1) - move.getCol(0)));
+                assertEquals(3, move.getScore());
+            }
+        }
+        assertEquals(2, found);
+    }
+
+    @Test
+    void no_move_when_no_tile_fits() {
+        grid.firstAdd(RIGHT, new Tile(RED, CROSS), new Tile(RED, DIAMOND));
+        List<Tile> hand = List.of(new Tile(BLUE, STAR), new Tile(GREEN, SQUARE));
+        assertTrue(generator.generate(gridView, hand).isEmpty());
+    }
+}
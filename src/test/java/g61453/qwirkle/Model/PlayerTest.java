@@ -0,0 +1,51 @@
+package g61453.qwirkle.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerTest {
+    private final Player player = new Player("alice", new Bag(1));
+
+    @Test
+    void hand_view_follows_the_hand() {
+        List<Tile> hand = player.getHand();
+        assertSame(hand, player.getHand());
+        assertEquals(6, hand.size());
+        Tile second = hand.get(1);
+        player.removeAt(0);
+        assertEquals(5, hand.size());
+        assertEquals(second, hand.get(0));
+        assertThrows(UnsupportedOperationException.class, () -> hand.remove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> hand.get(5));
+    }
+
+    @Test
+    void removing_a_tile_keeps_the_order_of_the_others() {
+        Tile[] before = player.getHandSnapshot();
+        player.removeTile(before[2]);
+        Tile[] after = player.getHandSnapshot();
+        assertEquals(5, after.length);
+        assertEquals(before[1], after[1]);
+        assertEquals(before[3], after[2]);
+        assertEquals(before[5], after[4]);
+    }
+
+    @Test
+    void hand_hash_and_mask_follow_the_tiles_held() {
+        Tile[] before = player.getHandSnapshot();
+        long hash = player.getHandHash();
+        long mask = player.getHandMask();
+        for (Tile tile : before) {
+            assertNotEquals(0, mask & (1L << (tile.code() - 1)));
+            assertTrue(player.count(tile.code()) >= 1);
+        }
+        player.removeTile(before);
+        assertEquals(0, player.getHandHash());
+        assertEquals(0, player.getHandMask());
+        player.restore(before, 0);
+        assertEquals(hash, player.getHandHash());
+    }
+}
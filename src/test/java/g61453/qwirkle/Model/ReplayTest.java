@@ -0,0 +1,71 @@
+package g61453.qwirkle.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayTest {
+
+    private static GameRecord record(Game game, boolean intact) {
+        ByteBuffer buffer = GameRecord.encode(game);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate());
+        return new GameRecord(buffer, 0, buffer.remaining(), (int) crc.getValue() ^ (intact ? 0 : 1));
+    }
+
+    private static List<Long> play(Game game) {
+        List<Long> hashes = new ArrayList<>();
+        hashes.add(game.getHash());
+        for (int turn = 0; turn < 200 && !game.isOver(); turn++) {
+            SelfPlay.playTurn(game);
+            hashes.add(game.getHash());
+        }
+        return hashes;
+    }
+
+    @Test
+    void a_seek_rebuilds_the_turn_played() {
+        Game game = new Game(List.of("alice", "bob"), 3);
+        List<Long> hashes = play(game);
+        Replay replay = new Replay(record(game, true), 4);
+        assertTrue(replay.isTrusted());
+        assertEquals(hashes.size() - 1, replay.getTurnCount());
+        assertEquals(game.getPlayerScore(0), replay.getGame().getPlayerScore(0));
+        for (int turn : new int[]{0, 17, 5, 6, hashes.size() - 1, 1}) {
+            replay.seek(turn);
+            assertEquals(turn, replay.getTurn());
+            assertEquals(hashes.get(turn).longValue(), replay.getGame().getHash());
+        }
+    }
+
+    @Test
+    void steps_go_forward_and_backward() {
+        Game game = new Game(List.of("alice", "bob", "carol"), 5);
+        List<Long> hashes = play(game);
+        Replay replay = new Replay(record(game, false), 3);
+        assertFalse(replay.isTrusted());
+        assertFalse(replay.next());
+        while (replay.previous()) {
+            assertEquals(hashes.get(replay.getTurn()).longValue(), replay.getGame().getHash());
+        }
+        assertEquals(0, replay.getTurn());
+        while (replay.next()) {
+            assertEquals(hashes.get(replay.getTurn()).longValue(), replay.getGame().getHash());
+        }
+        assertEquals(hashes.size() - 1, replay.getTurn());
+    }
+
+    @Test
+    void a_turn_out_of_the_game_is_refused() {
+        Game game = new Game(List.of("alice", "bob"), 1);
+        play(game);
+        Replay replay = new Replay(record(game, true));
+        assertThrows(QwirkleException.class, () -> replay.seek(replay.getTurnCount() + 1));
+        assertThrows(QwirkleException.class, () -> new Replay(record(game, true), 0));
+    }
+}
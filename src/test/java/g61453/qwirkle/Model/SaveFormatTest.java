@@ -0,0 +1,71 @@
+package g61453.qwirkle.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaveFormatTest {
+
+    private static Game playedGame(int turns) {
+        return SelfPlay.playedGame(1, turns);
+    }
+
+    @Test
+    void a_decoded_game_goes_on_like_the_saved_one() {
+        Game game = playedGame(20);
+        Game decoded = SaveFormat.decode(SaveFormat.encode(game));
+        assertEquals(game.getHash(), decoded.getHash());
+        assertEquals(game.getPlayerScore(0), decoded.getPlayerScore(0));
+        assertEquals(game.getPlayerScore(1), decoded.getPlayerScore(1));
+        assertEquals(game.getUnseenTotal(0), decoded.getUnseenTotal(0));
+        Move move = game.getLegalMoves().get(0);
+        game.apply(move);
+        decoded.apply(move);
+        assertEquals(game.getHash(), decoded.getHash());
+    }
+
+    @Test
+    void a_save_takes_a_few_hundred_bytes() {
+        assertTrue(SaveFormat.encode(playedGame(40)).remaining() < 512);
+    }
+
+    @Test
+    void a_damaged_save_is_refused() {
+        ByteBuffer save = SaveFormat.encode(playedGame(10));
+        save.put(12, (byte) (save.get(12) + 1));
+        assertThrows(QwirkleException.class, () -> SaveFormat.decode(save));
+    }
+
+    @Test
+    void a_save_naming_a_missing_tile_is_refused_even_with_its_checksum() {
+        ByteBuffer save = SaveFormat.encode(playedGame(10));
+        int firstTileOfAlice = Integer.BYTES + Short.BYTES + 3 + Short.BYTES + "alice".length() + Integer.BYTES + 1;
+        save.put(firstTileOfAlice, (byte) 0);
+        CRC32C crc = new CRC32C();
+        crc.update(save.duplicate().limit(save.limit() - Integer.BYTES));
+        save.putInt(save.limit() - Integer.BYTES, (int) crc.getValue());
+        assertThrows(QwirkleException.class, () -> SaveFormat.decode(save));
+    }
+
+    @Test
+    void a_save_is_sized_to_the_names_of_the_players() {
+        String name = "x".repeat(10_000);
+        Game game = new Game(List.of(name, "bob"), 1);
+        Game decoded = SaveFormat.decode(SaveFormat.encode(game));
+        assertEquals(name, decoded.getPlayer(0).getName());
+        Game tooLong = new Game(List.of("x".repeat(70_000), "bob"), 1);
+        assertThrows(QwirkleException.class, () -> SaveFormat.encode(tooLong));
+    }
+
+    @Test
+    void a_game_on_an_unbounded_grid_cannot_be_saved() {
+        Game game = playedGame(0);
+        Game unbounded = new Game(new Player[]{game.getPlayer(0), game.getPlayer(1)}, game.getBag(),
+                Grid.unbounded(), 0, 0);
+        assertThrows(QwirkleException.class, () -> SaveFormat.encode(unbounded));
+    }
+}
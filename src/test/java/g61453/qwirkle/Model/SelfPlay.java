@@ -0,0 +1,61 @@
+package g61453.qwirkle.Model;
+
+import java.util.List;
+
+/**
+ * Plays the turns of the games of the tests: the first legal move listed, or a pass when there is none.
+ */
+final class SelfPlay {
+
+    private SelfPlay() {
+    }
+
+    /**
+     * Plays the first legal move of the current player, or passes when there is none.
+     *
+     * @param game The game, which is not over.
+     * @return The record of the turn.
+     */
+    static Turn playTurn(Game game) {
+        List<Move> moves = game.getLegalMoves();
+        return moves.isEmpty() ? game.pass() : game.apply(moves.get(0));
+    }
+
+    /**
+     * Plays the move a strategy chooses for the current player, or passes when it chooses none.
+     *
+     * @param game     The game, which is not over.
+     * @param strategy The strategy choosing the move.
+     * @return The record of the turn.
+     */
+    static Turn playTurn(Game game, Strategy strategy) {
+        Move move = strategy.choose(game);
+        return move == null ? game.pass() : game.apply(move);
+    }
+
+    /**
+     * Plays turns until a given number is played or the game is over.
+     *
+     * @param game  The game.
+     * @param turns The most turns to play.
+     * @return The game.
+     */
+    static Game play(Game game, int turns) {
+        for (int turn = 0; turn < turns && !game.isOver(); turn++) {
+            playTurn(game);
+        }
+        return game;
+    }
+
+    /**
+     * Creates a game between alice and bob, whose bag deals its tiles from a seed, and plays turns in it until a
+     * given number is played or the game is over.
+     *
+     * @param seed  The seed of the random numbers of the bag.
+     * @param turns The most turns to play.
+     * @return The game.
+     */
+    static Game playedGame(long seed, int turns) {
+        return play(new Game(List.of("alice", "bob"), seed), turns);
+    }
+}
@@ -0,0 +1,41 @@
+package g61453.qwirkle.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationTest {
+
+    private static final List<LongFunction<Strategy>> SEATS = List.of(RandomStrategy::new, RandomStrategy::new);
+
+    @Test
+    void every_game_is_played_and_recorded() {
+        SimulationReport report = new Simulation(SEATS, 20, 2, 0).run();
+        assertEquals(20, report.getGames());
+        assertEquals(20, report.getWins(0) + report.getWins(1));
+        assertTrue(report.getMinTurns() > 0);
+    }
+
+    @Test
+    void same_seed_gives_same_report_whatever_the_threads() {
+        SimulationReport single = new Simulation(SEATS, 20, 1, 42).run();
+        SimulationReport many = new Simulation(SEATS, 20, 4, 42).run();
+        assertEquals(single.getWins(0), many.getWins(0));
+        assertEquals(single.getMeanTurns(), many.getMeanTurns());
+        assertEquals(single.getMeanScore(), many.getMeanScore());
+        assertEquals(single.getScorePercentile(50), many.getScorePercentile(50));
+    }
+
+    @Test
+    void a_game_needs_two_seats() {
+        assertThrows(QwirkleException.class, () -> new Simulation(List.of(RandomStrategy::new), 1, 1, 0));
+    }
+
+    @Test
+    void threads_must_be_strictly_positive() {
+        assertThrows(QwirkleException.class, () -> new Simulation(SEATS, 1, 0, 0));
+    }
+}
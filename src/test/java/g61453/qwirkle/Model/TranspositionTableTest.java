@@ -0,0 +1,67 @@
+package g61453.qwirkle.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    @Test
+    void finds_an_entry_stored() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(12345L, 7, TranspositionTable.LOWER, -42, 3);
+        long entry = table.probe(12345L);
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        assertEquals(-42, TranspositionTable.value(entry));
+        assertEquals(3, TranspositionTable.move(entry));
+        assertEquals(0, table.probe(54321L));
+    }
+
+    @Test
+    void keeps_the_deepest_entry_and_the_last_one_of_a_bucket() {
+        TranspositionTable table = new TranspositionTable(1);
+        long buckets = table.sizeInBytes() / 32;
+        long deep = 1;
+        table.store(deep, 9, TranspositionTable.EXACT, 1, 0);
+        table.store(deep + buckets, 2, TranspositionTable.EXACT, 2, 0);
+        table.store(deep + 2 * buckets, 3, TranspositionTable.EXACT, 3, 0);
+        assertEquals(1, TranspositionTable.value(table.probe(deep)));
+        assertEquals(0, table.probe(deep + buckets));
+        assertEquals(3, TranspositionTable.value(table.probe(deep + 2 * buckets)));
+    }
+
+    @Test
+    void size_is_rounded_down_to_a_power_of_two() {
+        assertEquals(2L << 20, new TranspositionTable(3).sizeInBytes());
+        assertThrows(QwirkleException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    void threads_sharing_the_table_never_read_a_torn_entry() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        AtomicBoolean torn = new AtomicBoolean();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    long hash = (i % 64) * 0x9E3779B97F4A7C15L;
+                    int value = (int) (hash >>> 40);
+                    table.store(hash, seed, TranspositionTable.EXACT, value, i & 0xFF);
+                    long entry = table.probe(hash);
+                    if (entry != 0 && TranspositionTable.value(entry) != value) {
+                        torn.set(true);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        assertFalse(torn.get());
+    }
+}